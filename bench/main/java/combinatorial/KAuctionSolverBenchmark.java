@@ -0,0 +1,99 @@
+package main.java.combinatorial;
+
+import main.java.utils.DummyGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Winner determination at growing bid counts, against the Choco model it replaced. Bids ask for 1 to 3 goods out
+ * of bidCount / 2, so there are plenty of conflicts. Instances are random but fixed by the seed, release to release.
+ * Choco needs tens of seconds per solve from 80 bids on, so it only runs the small sizes. solveParallel runs a
+ * portfolio with one search per core. Clustered instances are made of independent groups of 40 bids on their own
+ * goods, as in an event where most bidders only want goods of one lot.
+ * mvn -P bench test-compile exec:exec -Dbenchmark=KAuctionSolverBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KAuctionSolverBenchmark {
+
+    private static final long SEED = 42;
+
+    @State(Scope.Benchmark)
+    public static class Bids {
+
+        @Param({"10", "40", "160", "320"})
+        public int bidCount;
+
+        KBid[] bids;
+
+        @Setup
+        public void setup() {
+            bids = DummyGenerator.getRandomKBids(new Random(SEED), bidCount, Math.max(1, bidCount / 2));
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ClusteredBids {
+
+        @Param({"10", "100"})
+        public int clusterCount;
+
+        KBid[] bids;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(SEED);
+            List<KBid> all = new ArrayList<>();
+            for (int cluster = 0; cluster < clusterCount; cluster++) {
+                for (KBid bid: DummyGenerator.getRandomKBids(random, 40, 20)) {
+                    for (int i = 0; i < bid.goodsIds.length; i++) {
+                        bid.goodsIds[i] += cluster * 20;
+                    }
+                    bid.id = all.size();
+                    all.add(bid);
+                }
+            }
+            bids = all.toArray(new KBid[all.size()]);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ChocoBids {
+
+        @Param({"10", "20", "40"})
+        public int chocoBidCount;
+
+        KBid[] bids;
+
+        @Setup
+        public void setup() {
+            bids = DummyGenerator.getRandomKBids(new Random(SEED), chocoBidCount, Math.max(1, chocoBidCount / 2));
+        }
+    }
+
+    @Benchmark
+    public List<KBid> solve(Bids bids) {
+        return new KAuctionSolver(bids.bids).solve();
+    }
+
+    @Benchmark
+    public KAuctionResult solveParallel(Bids bids) {
+        return new KAuctionSolver(bids.bids).solveParallel(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public List<KBid> solveClustered(ClusteredBids bids) {
+        return new KAuctionSolver(bids.bids).solve();
+    }
+
+    @Benchmark
+    public List<KBid> solveChoco(ChocoBids bids) {
+        return new ChocoKAuctionSolver(bids.bids).solve();
+    }
+}
@@ -0,0 +1,117 @@
+package main.java.combinatorial;
+
+import main.java.live.LiveAuction;
+import main.java.models.Bid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bids of a combinatorial auction to KBids (as on close, and when a live auction is loaded) and the split into
+ * conflict components, against the boxed HashMap versions they replaced. Every bidder bids on 2 goods.
+ * Allocation per operation is what this is about: run with -prof gc and look at gc.alloc.rate.norm.
+ * mvn -P bench test-compile exec:exec -Dbenchmark=KBidConversionBenchmark -Djmh.args="-prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class KBidConversionBenchmark {
+
+    @Param({"10000", "100000"})
+    public int bidCount;
+
+    private List<Bid> bids;
+    private KBid[] kBids;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        int goodCount = Math.max(2, bidCount / 4);
+        bids = new ArrayList<>(bidCount);
+        for (int i = 0; i < bidCount; i++) {
+            Bid bid = new Bid();
+            bid.ownerId = 1 + i / 2;
+            bid.goodId = 1 + random.nextInt(goodCount);
+            bid.amount = 10 + random.nextInt(100);
+            bid.auctionId = 1;
+            bids.add(bid);
+        }
+        kBids = LiveAuction.toKBids(bids);
+    }
+
+    @Benchmark
+    public KBid[] toKBids() {
+        return LiveAuction.toKBids(bids);
+    }
+
+    @Benchmark
+    public KBid[] legacyToKBids() {
+        Map<Integer, List<Integer>> goodIds = new HashMap<>(); // User, Good ID
+        Map<Integer, Double> valueGoods = new HashMap<>(); // User, Good value
+        for (Bid bid: bids) {
+            if (!goodIds.containsKey(bid.ownerId)) {
+                goodIds.put(bid.ownerId, new ArrayList<>());
+            }
+            goodIds.get(bid.ownerId).add(bid.goodId);
+            valueGoods.put(bid.ownerId, bid.amount);
+        }
+
+        List<KBid> kBids = new ArrayList<>();
+        for (Map.Entry<Integer, List<Integer>> entry: goodIds.entrySet()) {
+            int[] entryGoodIds = entry.getValue().stream().mapToInt(i -> i).toArray();
+            kBids.add(new KBid(entry.getKey(), valueGoods.get(entry.getKey()).intValue(), entryGoodIds));
+        }
+        return kBids.toArray(new KBid[kBids.size()]);
+    }
+
+    @Benchmark
+    public List<int[]> conflictComponents() {
+        return KBid.getConflictComponents(kBids);
+    }
+
+    @Benchmark
+    public List<int[]> legacyConflictComponents() {
+        Map<Integer, Integer> goodIndexes = new HashMap<>();
+        for (KBid bid: kBids) {
+            for (int good: bid.goodsIds) {
+                goodIndexes.putIfAbsent(good, goodIndexes.size());
+            }
+        }
+        int[] parents = new int[goodIndexes.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (KBid bid: kBids) {
+            for (int i = 1; i < bid.goodsIds.length; i++) {
+                int first = find(parents, goodIndexes.get(bid.goodsIds[0]));
+                int other = find(parents, goodIndexes.get(bid.goodsIds[i]));
+                parents[other] = first;
+            }
+        }
+        Map<Integer, List<Integer>> byRoot = new LinkedHashMap<>();
+        List<int[]> components = new ArrayList<>();
+        for (int bid = 0; bid < kBids.length; bid++) {
+            if (kBids[bid].goodsIds.length == 0) {
+                components.add(new int[]{bid});
+                continue;
+            }
+            int root = find(parents, goodIndexes.get(kBids[bid].goodsIds[0]));
+            byRoot.computeIfAbsent(root, r -> new ArrayList<>()).add(bid);
+        }
+        for (List<Integer> component: byRoot.values()) {
+            components.add(component.stream().mapToInt(i -> i).toArray());
+        }
+        return components;
+    }
+
+    private static int find(int[] parents, int good) {
+        while (parents[good] != good) {
+            parents[good] = parents[parents[good]];
+            good = parents[good];
+        }
+        return good;
+    }
+}
@@ -0,0 +1,60 @@
+package main.java.gson;
+
+import com.google.gson.Gson;
+import main.java.models.Bid;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bid[] round-trips, as bids come in (combinatorial auctions send one bid per good).
+ * mvn -P bench test-compile exec:exec -Dbenchmark=BetterGsonBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BetterGsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int bidCount;
+
+    private Gson gson;
+    private Bid[] bids;
+    private String bidsJson;
+
+    @Setup
+    public void setup() {
+        gson = new BetterGson().newInstance();
+
+        bids = new Bid[bidCount];
+        for (int i = 0; i < bidCount; i++) {
+            Bid bid = new Bid();
+            bid.id = i + 1;
+            bid.amount = 10.5 + i;
+            bid.auctionId = 2;
+            bid.goodId = i + 3;
+            bid.ownerId = 4;
+            bid.createdAt = new Timestamp(1500000000123L + i);
+            bids[i] = bid;
+        }
+        bidsJson = gson.toJson(bids);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(bids);
+    }
+
+    @Benchmark
+    public Bid[] fromJson() {
+        return gson.fromJson(bidsJson, Bid[].class);
+    }
+
+    @Benchmark
+    public Bid[] roundTrip() {
+        return gson.fromJson(gson.toJson(bids), Bid[].class);
+    }
+}
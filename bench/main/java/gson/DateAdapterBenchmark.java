@@ -0,0 +1,136 @@
+package main.java.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
+import main.java.models.Bid;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.sql.Timestamp;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UTC date adapter: lock-free codec against the previous synchronized SimpleDateFormat.
+ * Run with 1 and with several threads to see the contention go away:
+ * mvn -P bench test-compile exec:exec -Dbenchmark=DateAdapterBenchmark -Djmh.args="-f 1 -t 4"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DateAdapterBenchmark {
+
+    private static final long MILLIS = 1500000000123L;
+    private static final String TEXT = "2017-07-14T02:40:00.123Z";
+
+    private LegacyUTCDateAdapter legacyAdapter;
+    private Gson legacyGson;
+    private Gson gson;
+    private Bid bid;
+    private String bidJson;
+
+    @Setup
+    public void setup() {
+        legacyAdapter = new LegacyUTCDateAdapter();
+        legacyGson = new GsonBuilder().registerTypeAdapter(Date.class, legacyAdapter).create();
+        gson = new GsonBuilder().registerTypeAdapter(Date.class, new GsonUTCDateAdapter()).create();
+
+        bid = new Bid();
+        bid.id = 1;
+        bid.amount = 10.5;
+        bid.auctionId = 2;
+        bid.goodId = 3;
+        bid.ownerId = 4;
+        bid.createdAt = new Timestamp(MILLIS);
+        bidJson = gson.toJson(bid);
+    }
+
+    @Benchmark
+    public String formatLegacy() {
+        return legacyAdapter.format(new Date(MILLIS));
+    }
+
+    @Benchmark
+    public String formatCodec() {
+        return UTCDateCodec.format(MILLIS);
+    }
+
+    @Benchmark
+    public Date parseLegacy() throws ParseException {
+        return legacyAdapter.parse(TEXT);
+    }
+
+    @Benchmark
+    public Date parseCodec() throws ParseException {
+        return UTCDateCodec.parse(TEXT);
+    }
+
+    @Benchmark
+    public String bidToJsonLegacy() {
+        return legacyGson.toJson(bid);
+    }
+
+    @Benchmark
+    public String bidToJson() {
+        return gson.toJson(bid);
+    }
+
+    @Benchmark
+    public Bid bidFromJsonLegacy() {
+        return legacyGson.fromJson(bidJson, Bid.class);
+    }
+
+    @Benchmark
+    public Bid bidFromJson() {
+        return gson.fromJson(bidJson, Bid.class);
+    }
+
+    /**
+     * The adapter as it was: one SimpleDateFormat behind a monitor.
+     */
+    static class LegacyUTCDateAdapter implements JsonSerializer<Date>, JsonDeserializer<Date> {
+
+        private final DateFormat dateFormat;
+
+        LegacyUTCDateAdapter() {
+            dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+            dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
+
+        synchronized String format(Date date) {
+            return dateFormat.format(date);
+        }
+
+        synchronized Date parse(String text) throws ParseException {
+            return dateFormat.parse(text);
+        }
+
+        @Override
+        public JsonElement serialize(Date date, Type type, JsonSerializationContext context) {
+            return new JsonPrimitive(format(date));
+        }
+
+        @Override
+        public Date deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext context) {
+            try {
+                return parse(jsonElement.getAsString());
+            } catch (ParseException e) {
+                throw new JsonParseException(e);
+            }
+        }
+    }
+}
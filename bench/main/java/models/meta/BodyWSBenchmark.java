@@ -0,0 +1,93 @@
+package main.java.models.meta;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * WebSocket frame decoding and encoding: single-pass parser and lazy nonce against the previous regex decoder.
+ * mvn -P bench test-compile exec:exec -Dbenchmark=BodyWSBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BodyWSBenchmark {
+
+    @Param({"small", "large"})
+    public String frameSize;
+
+    private String frame;
+
+    @Setup
+    public void setup() {
+        String json = "{\"amount\":10.5,\"auctionId\":2,\"goodId\":3,\"ownerId\":4,\"createdAt\":\"2017-07-14T02:40:00.123Z\"}";
+        if (frameSize.equals("large")) {
+            StringBuilder goods = new StringBuilder("[");
+            for (int i = 0; i < 100; i++) {
+                goods.append(i == 0 ? "" : ",").append(json);
+            }
+            json = goods.append("]").toString();
+        }
+        frame = "AuctionBid,c5d2a3b4-9f0e-4d6a-8b1c-2e3f4a5b6c7d,200," + json;
+    }
+
+    @Benchmark
+    public BodyWS decodeLegacy() {
+        return LegacyBodyWS.fromString(frame);
+    }
+
+    @Benchmark
+    public BodyWS decode() {
+        return BodyWS.fromString(frame);
+    }
+
+    @Benchmark
+    public String encodeNewLegacy() {
+        BodyWS body = LegacyBodyWS.newBody();
+        body.type = "AuctionBidded";
+        body.json = "{}";
+        return String.format("%s,%s,%s,%s", body.type, body.nonce, body.status, body.json);
+    }
+
+    @Benchmark
+    public String encodeNew() {
+        BodyWS body = new BodyWS();
+        body.type = "AuctionBidded";
+        body.json = "{}";
+        return body.toString();
+    }
+
+    /**
+     * The decoder as it was: a pattern compiled per frame, and a SecureRandom UUID per body.
+     */
+    static class LegacyBodyWS {
+
+        static BodyWS newBody() {
+            BodyWS body = new BodyWS();
+            body.nonce = UUID.randomUUID().toString();
+            return body;
+        }
+
+        static BodyWS fromString(String text) {
+            Pattern pattern = Pattern.compile("(.*?),(.*?),([0-9]+),(.*)");
+            Matcher matcher = pattern.matcher(text);
+
+            if (!matcher.matches()) {
+                return newBody();
+            }
+
+            BodyWS body = newBody();
+            body.type = matcher.group(1);
+            body.nonce = matcher.group(2);
+            body.status = Integer.valueOf(matcher.group(3));
+            body.json = matcher.group(4);
+
+            return body;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package main.java.socket;
+
+import main.java.dao.*;
+import main.java.gson.BetterGson;
+import main.java.live.LiveAuctionEngine;
+import main.java.mocks.MockHttpSession;
+import main.java.mocks.MockSession;
+import main.java.mocks.MockWSSender;
+import main.java.models.*;
+import main.java.models.meta.BodyWS;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * BidWS.onAuctionBid on an English auction, from the decoded body to the reply, against mocked DAOs.
+ * The live auction engine runs on the calling thread, so each operation includes the (mocked) bid write.
+ * Every thread bids on its own auction.
+ * mvn -P bench test-compile exec:exec -Dbenchmark=BidWSBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BidWSBenchmark {
+
+    private static final int USER_ID = 1;
+    private static final int GOOD_ID = 3;
+
+    private static final AtomicInteger auctionIds = new AtomicInteger();
+
+    private BidWS bidWS;
+    private MockWSSender<BodyWS> sender;
+    private int auctionId;
+    private long amount = 2;
+
+    @Setup
+    public void setup() throws DAOException {
+        auctionId = auctionIds.incrementAndGet();
+
+        User user = new User();
+        user.id = USER_ID;
+        user.name = "Bench";
+        user.credit = Double.MAX_VALUE;
+
+        Event event = new Event();
+        event.id = auctionId;
+        event.auctionType = Event.ENGLISH;
+
+        Auction auction = new Auction();
+        auction.id = auctionId;
+        auction.eventId = event.id;
+        auction.startingPrice = 1.0;
+        auction.status = Auction.IN_PROGRESS;
+
+        Good good = new Good();
+        good.id = GOOD_ID;
+        good.auctionId = auctionId;
+
+        // Stub only: mocks would otherwise remember every invocation, and the heap would keep growing.
+        UserDAO userDAO = mock(UserDAO.class, withSettings().stubOnly());
+        AuctionDAO auctionDAO = mock(AuctionDAO.class, withSettings().stubOnly());
+        EventDAO eventDAO = mock(EventDAO.class, withSettings().stubOnly());
+        BidDAO bidDAO = mock(BidDAO.class, withSettings().stubOnly());
+        GoodDAO goodDAO = mock(GoodDAO.class, withSettings().stubOnly());
+        when(userDAO.getById(USER_ID)).thenReturn(user);
+        when(auctionDAO.getById(auctionId)).thenReturn(auction);
+        when(eventDAO.getById(event.id)).thenReturn(event);
+        when(bidDAO.getListByAuctionId(auctionId)).thenReturn(Collections.emptyList());
+        when(goodDAO.getListByAuctionId(auctionId)).thenReturn(Collections.singletonList(good));
+        when(bidDAO.create(any(Bid.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        MockHttpSession httpSession = new MockHttpSession();
+        httpSession.setUserId(USER_ID);
+        sender = new MockWSSender<>();
+
+        bidWS = new BidWS();
+        bidWS.sender = sender;
+        bidWS.userDAO = userDAO;
+        bidWS.auctionDAO = auctionDAO;
+        bidWS.eventDAO = eventDAO;
+        bidWS.bidDAO = bidDAO;
+        bidWS.goodDAO = goodDAO;
+        bidWS.liveAuctions = new LiveAuctionEngine(auctionDAO, eventDAO, bidDAO, goodDAO, Runnable::run, Runnable::run);
+        bidWS.onOpen(new MockSession(), httpSession);
+
+        BodyWS subscribeBody = new BodyWS();
+        subscribeBody.type = BidWS.TYPE_AUCTION_SUBSCRIBE;
+        subscribeBody.nonce = "subscribe";
+        subscribeBody.json = new BetterGson().newInstance().toJson(auction);
+        bidWS.onMessage(null, subscribeBody);
+        if (sender.newObjLastReply.status != 200) {
+            throw new IllegalStateException("Subscription failed: " + sender.newObjLastReply.json);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        BidWS.clearConnected();
+    }
+
+    @Benchmark
+    public BodyWS acceptedBid() {
+        amount++;
+        bidWS.onMessage(null, bidBody(amount));
+        return sender.newObjLastReply;
+    }
+
+    @Benchmark
+    public BodyWS rejectedBid() {
+        // Lower than the highest bid: goes all the way through the auction sequence and gets rejected there.
+        bidWS.onMessage(null, bidBody(1.5));
+        return sender.newObjLastReply;
+    }
+
+    private BodyWS bidBody(double amount) {
+        BodyWS body = new BodyWS();
+        body.type = BidWS.TYPE_AUCTION_BID;
+        body.nonce = "bid";
+        body.json = "[{\"amount\":" + amount + ",\"auctionId\":" + auctionId + ",\"goodId\":" + GOOD_ID + "}]";
+        return body;
+    }
+}
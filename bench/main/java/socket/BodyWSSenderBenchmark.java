@@ -0,0 +1,77 @@
+package main.java.socket;
+
+import main.java.mocks.MockAsyncRemoteEndpoint;
+import main.java.mocks.MockSession;
+import main.java.models.meta.BodyWS;
+import org.openjdk.jmh.annotations.*;
+
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broadcast of one body to every session of an auction (i.e. AuctionBidded), with the blocking and
+ * the async senders. Remotes deliver straight away, so this measures the sender cost only.
+ * mvn -P bench test-compile exec:exec -Dbenchmark=BodyWSSenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BodyWSSenderBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int sessionCount;
+
+    private List<Session> sessions;
+    private BodyWSSender bodyWSSender;
+    private AsyncBodyWSSender asyncBodyWSSender;
+    private String json;
+
+    @Setup
+    public void setup() {
+        sessions = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            MockSession session = new MockSession();
+            session.asyncRemoteEndpoint = new DeliveringAsyncRemoteEndpoint();
+            sessions.add(session);
+        }
+        bodyWSSender = new BodyWSSender();
+        asyncBodyWSSender = new AsyncBodyWSSender(AsyncBodyWSSender.DEFAULT_MAX_QUEUED);
+        json = "{\"id\":1,\"amount\":10.5,\"auctionId\":2,\"goodId\":3,\"ownerId\":4,\"createdAt\":\"2017-07-14T02:40:00.123Z\"}";
+    }
+
+    @Benchmark
+    public void fanOut() {
+        bodyWSSender.send(sessions, auctionBidded());
+    }
+
+    @Benchmark
+    public void fanOutAsync() {
+        asyncBodyWSSender.send(sessions, auctionBidded());
+    }
+
+    private BodyWS auctionBidded() {
+        BodyWS body = new BodyWS();
+        body.type = BidWS.TYPE_AUCTION_BIDDED;
+        body.json = json;
+        return body;
+    }
+
+    /**
+     * Completes every send, without keeping the sent texts around.
+     */
+    static class DeliveringAsyncRemoteEndpoint extends MockAsyncRemoteEndpoint {
+
+        private static final SendResult OK = new SendResult();
+
+        @Override
+        public void sendText(String s, SendHandler sendHandler) {
+            sendHandler.onResult(OK);
+        }
+    }
+}
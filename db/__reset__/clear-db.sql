@@ -0,0 +1,3 @@
+-- Empty every table but schema_version, so migrations do not have to run again
+------------------------------------------------------------------------------
+TRUNCATE public.bid, public.good, public.auction, public.event, public."user" RESTART IDENTITY CASCADE;
@@ -0,0 +1,49 @@
+------------------------
+-- Secondary indexes --
+------------------------
+
+-- Bids of an auction (bid list, auction close, cascade from auction)
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS bid_auction_index
+  ON public.bid (auction);
+
+-- Bids of a user, along with their auctions (bid list, auction where user is bidding)
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS bid_owner_auction_index
+  ON public.bid (owner, auction);
+
+-- Bids of a good (foreign key checks on good delete)
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS bid_good_index
+  ON public.bid (good)
+  WHERE good IS NOT NULL;
+
+-- Auctions of an event, by id
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS auction_event_id_index
+  ON public.auction (event, id);
+
+-- Auctions won by a user, by id. Most auctions have no winner.
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS auction_winner_id_index
+  ON public.auction (winner, id)
+  WHERE winner IS NOT NULL;
+
+-- Auctions in progress, a few at a time out of all the finished ones
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS auction_in_progress_index
+  ON public.auction (id)
+  WHERE status = 'IN_PROGRESS';
+
+-- Goods of an auction, by id
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS good_auction_id_index
+  ON public.good (auction, id);
+
+-- Unique indexes on id duplicate the primary keys, every write paid for both
+------------------------------------------------------------------------------
+DROP INDEX IF EXISTS public.user_id_uindex;
+DROP INDEX IF EXISTS public.event_id_uindex;
+DROP INDEX IF EXISTS public.auction_id_uindex;
+DROP INDEX IF EXISTS public.good_id_uindex;
+DROP INDEX IF EXISTS public.bid_id_uindex;
@@ -0,0 +1,18 @@
+-------------------------------
+-- Keyset pagination indexes --
+-------------------------------
+-- Lists are paged by id (see Page): each index below hands a page over in order, from where the last one ended.
+-- Auctions and goods are paged over the (fk, id) indexes of v1.6.
+
+-- Bids of a user, by id. bid_owner_auction_index stays for the auction where user is bidding.
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS bid_owner_id_index
+  ON public.bid (owner, id);
+
+-- Events of a status / of a category, newest first. Unfiltered, the primary key is read backwards.
+------------------------------------------------------------------------------
+CREATE INDEX IF NOT EXISTS event_status_id_index
+  ON public.event (status, id);
+
+CREATE INDEX IF NOT EXISTS event_category_id_index
+  ON public.event (category, id);
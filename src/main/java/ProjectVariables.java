@@ -4,4 +4,6 @@ public class ProjectVariables {
     public static final double HOUSE_FEE = 0.02; // Our % fee after each successful auction.
     public static final double HOUSE_COMB_FEE = 0.03; // Our % fee after each successful combinatorial auction.
     public static final double EVENT_OWNER_FEE = 0.01; // Event owner % fee after each successful auction.
+    public static final long COMBINATORIAL_SOLVE_MILLIS = 5000; // Time to look for the best winners on auction close.
+    public static final long COMBINATORIAL_BID_SOLVE_MILLIS = 50; // Time to update the provisional winners per bid.
 }
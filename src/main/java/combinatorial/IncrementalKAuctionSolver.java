@@ -0,0 +1,193 @@
+package main.java.combinatorial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Winner determination kept up to date while the bids of an auction come in, so that the provisional winners are
+ * known at any time and closing the auction has (almost) nothing left to solve.
+ * - Only the conflict component of the new bids is solved again. Components never split as bids come in: a new bid
+ * joins the components of its goods into one.
+ * - That search is warm started from the winners of the components it joins, which are still a valid allocation.
+ * - Every add gets a small budget. Components that could not be proven optimal in time are searched again by finish.
+ * Not thread safe: bids are to be added one at a time, i.e. from the auction sequence.
+ */
+public class IncrementalKAuctionSolver {
+
+    private final List<KBid> bids = new ArrayList<>();
+    private final Set<Component> components = new LinkedHashSet<>();
+    private final IntListMap goodIndexes = new IntListMap(); // Good ID <-> Index in byGood, as entries
+    private Component[] byGood = new Component[16]; // Component asking for each good
+    private long totalValue; // See KBid.getTotalValue.
+    private long nodes;
+
+    public KAuctionResult add(KBid bid, long budget, TimeUnit unit) {
+        return add(new KBid[]{bid}, budget, unit);
+    }
+
+    /**
+     * @return allocation of every bid so far.
+     * @throws ArithmeticException if bid values add up past Long.MAX_VALUE. No bid is added then.
+     */
+    public KAuctionResult add(KBid[] newBids, long budget, TimeUnit unit) {
+        long startedAt = System.nanoTime();
+        totalValue = Math.addExact(totalValue, KBid.getTotalValue(newBids));
+
+        List<Component> joined = new ArrayList<>(newBids.length);
+        for (KBid bid: newBids) {
+            joined.add(join(bid));
+        }
+        joined.removeIf(component -> !components.contains(component)); // Joined again by a later bid.
+        solve(joined, unit.toNanos(budget), startedAt);
+        return getResult(System.nanoTime() - startedAt);
+    }
+
+    /**
+     * Search again the components that are not proven optimal yet, smallest first.
+     * @return final allocation.
+     */
+    public KAuctionResult finish(long budget, TimeUnit unit) {
+        long startedAt = System.nanoTime();
+
+        List<Component> unproven = new ArrayList<>();
+        for (Component component: components) {
+            if (!component.optimal) {
+                unproven.add(component);
+            }
+        }
+        solve(unproven, unit.toNanos(budget), startedAt);
+        KAuctionResult result = getResult(System.nanoTime() - startedAt);
+        KAuctionSolver.getStats().record(result);
+        return result;
+    }
+
+    /**
+     * @param solveNanos time taken by the last add or finish.
+     * @return current allocation, winners in the order they were added.
+     */
+    public KAuctionResult getResult(long solveNanos) {
+        int winnerCount = 0;
+        for (Component component: components) {
+            winnerCount += component.winners.length;
+        }
+        int[] winners = new int[winnerCount];
+        long value = 0;
+        long upperBound = 0;
+        boolean optimal = true;
+        int next = 0;
+        for (Component component: components) {
+            System.arraycopy(component.winners, 0, winners, next, component.winners.length);
+            next += component.winners.length;
+            value += component.value;
+            upperBound += component.upperBound;
+            optimal &= component.optimal;
+        }
+        Arrays.sort(winners);
+
+        List<KBid> winnerBids = new ArrayList<>(winners.length);
+        for (int winner: winners) {
+            winnerBids.add(bids.get(winner));
+        }
+        return new KAuctionResult(winnerBids, value, upperBound, optimal, nodes, solveNanos);
+    }
+
+    public int size() {
+        return bids.size();
+    }
+
+    /**
+     * Add the bid to a new component, along with the components of its goods.
+     */
+    private Component join(KBid bid) {
+        int index = bids.size();
+        bids.add(bid);
+
+        Set<Component> parts = new LinkedHashSet<>();
+        for (int good: bid.goodsIds) {
+            int goodIndex = goodIndexes.entryOf(good);
+            if (goodIndex != -1) {
+                parts.add(byGood[goodIndex]);
+            }
+        }
+
+        int bidCount = 1;
+        int winnerCount = 0;
+        for (Component part: parts) {
+            bidCount += part.bids.length;
+            winnerCount += part.winners.length;
+        }
+        Component component = new Component(new int[bidCount], new int[winnerCount]);
+        int nextBid = 0;
+        int nextWinner = 0;
+        for (Component part: parts) {
+            System.arraycopy(part.bids, 0, component.bids, nextBid, part.bids.length);
+            nextBid += part.bids.length;
+            System.arraycopy(part.winners, 0, component.winners, nextWinner, part.winners.length);
+            nextWinner += part.winners.length;
+            components.remove(part);
+        }
+        component.bids[nextBid] = index;
+        Arrays.sort(component.bids);
+        Arrays.sort(component.winners);
+
+        components.add(component);
+        for (int bidIndex: component.bids) {
+            for (int good: bids.get(bidIndex).goodsIds) {
+                int goodIndex = goodIndexes.addKey(good);
+                if (goodIndex == byGood.length) {
+                    byGood = Arrays.copyOf(byGood, byGood.length * 2);
+                }
+                byGood[goodIndex] = component;
+            }
+        }
+        return component;
+    }
+
+    private void solve(List<Component> toSolve, long budgetNanos, long startedAt) {
+        toSolve.sort((a, b) -> Integer.compare(a.bids.length, b.bids.length));
+        for (Component component: toSolve) {
+            KBid[] componentBids = new KBid[component.bids.length];
+            for (int i = 0; i < componentBids.length; i++) {
+                componentBids[i] = bids.get(component.bids[i]);
+            }
+            int[] start = new int[component.winners.length];
+            for (int i = 0; i < start.length; i++) {
+                start[i] = Arrays.binarySearch(component.bids, component.winners[i]);
+            }
+
+            SetPackingSolver solver = new SetPackingSolver(componentBids);
+            solver.setStart(start);
+            int[] winners = solver.solve(Math.max(0, budgetNanos - (System.nanoTime() - startedAt)));
+
+            component.winners = new int[winners.length];
+            for (int i = 0; i < winners.length; i++) {
+                component.winners[i] = component.bids[winners[i]];
+            }
+            component.value = solver.getValue();
+            component.upperBound = solver.getUpperBound();
+            component.optimal = solver.isOptimal();
+            nodes += solver.getNodes();
+        }
+    }
+
+    /**
+     * Bids and winners as indexes in bids, ascending.
+     */
+    private static class Component {
+
+        final int[] bids;
+        int[] winners;
+        long value;
+        long upperBound;
+        boolean optimal;
+
+        Component(int[] bids, int[] winners) {
+            this.bids = bids;
+            this.winners = winners;
+        }
+    }
+}
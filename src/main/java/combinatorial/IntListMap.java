@@ -0,0 +1,144 @@
+package main.java.combinatorial;
+
+import java.util.Arrays;
+
+/**
+ * Map of int keys to lists of ints, without boxing. Keys are numbered densely as they come (entries), which also
+ * makes it a renumbering of sparse ids (i.e. goods, users) into array indexes.
+ * - Open addressing with linear probing, on a power of two table that is kept at most half full.
+ * - Entries, and the values of each one, are kept in the order they were added.
+ */
+public final class IntListMap {
+
+    private static final int EMPTY = -1;
+    private static final int INITIAL_VALUES = 2;
+
+    private int[] slots; // Entry of each slot, or EMPTY.
+    private int[] keys; // Per entry.
+    private int[][] values; // Per entry.
+    private int[] sizes; // Per entry.
+    private int size;
+
+    public IntListMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedKeys keys it holds without growing.
+     */
+    public IntListMap(int expectedKeys) {
+        int capacity = Math.max(4, Integer.highestOneBit(Math.max(1, expectedKeys) * 2 - 1) << 1);
+        slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        keys = new int[Math.max(1, expectedKeys)];
+        values = new int[keys.length][];
+        sizes = new int[keys.length];
+    }
+
+    /**
+     * @return entry of the key, or -1 if it has none.
+     */
+    public int entryOf(int key) {
+        int mask = slots.length - 1;
+        for (int slot = hash(key) & mask; slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slots[slot]] == key) {
+                return slots[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return entry of the key, a new one (with no values) if it had none.
+     */
+    public int addKey(int key) {
+        int mask = slots.length - 1;
+        int slot = hash(key) & mask;
+        for (; slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slots[slot]] == key) {
+                return slots[slot];
+            }
+        }
+
+        if (size == keys.length) {
+            int capacity = keys.length * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        int entry = size++;
+        keys[entry] = key;
+        slots[slot] = entry;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return entry;
+    }
+
+    /**
+     * Append the value to the list of the key.
+     * @return entry of the key.
+     */
+    public int add(int key, int value) {
+        int entry = addKey(key);
+        int[] list = values[entry];
+        if (list == null) {
+            list = values[entry] = new int[INITIAL_VALUES];
+        } else if (sizes[entry] == list.length) {
+            list = values[entry] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[sizes[entry]++] = value;
+        return entry;
+    }
+
+    /**
+     * @return number of keys (entries are 0 to size - 1).
+     */
+    public int size() {
+        return size;
+    }
+
+    public int keyAt(int entry) {
+        return keys[entry];
+    }
+
+    public int valueCountAt(int entry) {
+        return sizes[entry];
+    }
+
+    /**
+     * @return the values of the entry, in the order they were added. A copy.
+     */
+    public int[] valuesAt(int entry) {
+        return values[entry] == null ? new int[0] : Arrays.copyOf(values[entry], sizes[entry]);
+    }
+
+    /**
+     * @return the values of the key, or null if it has none.
+     */
+    public int[] get(int key) {
+        int entry = entryOf(key);
+        return entry == -1 ? null : valuesAt(entry);
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, EMPTY);
+        int mask = slots.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(keys[entry]) & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry;
+        }
+    }
+
+    /**
+     * Ids are often consecutive: spread them so that they do not pile up in neighbour slots.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,46 @@
+package main.java.combinatorial;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation found by the solver, and how good it is known to be.
+ */
+public class KAuctionResult {
+
+    public final List<KBid> winners;
+    public final long value;
+    public final long upperBound; // No allocation is worth more.
+    public final boolean optimal; // Proven, i.e. the search did not run out of time.
+    public final long nodes;
+    public final long solveNanos;
+
+    KAuctionResult(List<KBid> winners, long value, long upperBound, boolean optimal, long nodes, long solveNanos) {
+        this.winners = winners;
+        this.value = value;
+        this.upperBound = upperBound;
+        this.optimal = optimal;
+        this.nodes = nodes;
+        this.solveNanos = solveNanos;
+    }
+
+    /**
+     * @return how much better than the value the optimal allocation might be, relative to the bound. 0 if optimal.
+     */
+    public double getGap() {
+        return upperBound == 0 ? 0 : (double) (upperBound - value) / upperBound;
+    }
+
+    @Override
+    public String toString() {
+        return "KAuctionResult{" +
+                "winners=" + winners.size() +
+                ", value=" + value +
+                ", upperBound=" + upperBound +
+                ", gap=" + String.format("%.2f%%", getGap() * 100) +
+                ", optimal=" + optimal +
+                ", nodes=" + nodes +
+                ", solveMillis=" + TimeUnit.NANOSECONDS.toMillis(solveNanos) +
+                '}';
+    }
+}
@@ -1,70 +1,244 @@
 package main.java.combinatorial;
 
-import org.chocosolver.solver.Model;
-import org.chocosolver.solver.Solution;
-import org.chocosolver.solver.Solver;
-import org.chocosolver.solver.variables.BoolVar;
-import org.chocosolver.solver.variables.IntVar;
-
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Winner determination of a combinatorial auction: the bids with no goods in common and the highest total value.
+ * - Bids are split into conflict components first (see KBid.getConflictComponents). Components share no goods,
+ * so each one is solved on its own and the allocations are put together.
+ * - Every component is a weighted set packing problem. See SetPackingSolver.
+ */
 public class KAuctionSolver {
 
-    private Model model;
-    private BoolVar[] selectedBids;
-    private IntVar[] selectedBidsWeights;
-    private IntVar objective;
+    private static final int PORTFOLIO_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int SMALL_COMPONENT = 32; // Bids. Not worth handing over to another thread.
+
+    private static final KAuctionSolverStats stats = new KAuctionSolverStats();
+    private static Executor portfolioPool;
+
     private KBid[] bids;
 
+    /**
+     * @throws ArithmeticException if bid values add up past Long.MAX_VALUE.
+     */
     public KAuctionSolver(KBid[] bids) {
-        this.model = new Model();
+        KBid.getTotalValue(bids);
         this.bids = bids;
-        this.createModel();
     }
 
+    /**
+     * Optimal allocation, however long it takes.
+     * @return winner bids, in the same order as given.
+     */
     public List<KBid> solve() {
-        Solver solver = model.getSolver();
-        Solution solution = solver.findOptimalSolution(objective, Model.MAXIMIZE);
-
-        List<KBid> winnerBids = new ArrayList<>();
-        for (int i = 0; i < selectedBids.length; i++) {
-            if (solution.getIntVal(selectedBids[i]) == 1) {
-                // Selected bid
-                winnerBids.add(bids[i]);
+        return solve(Long.MAX_VALUE, TimeUnit.NANOSECONDS).winners;
+    }
+
+    /**
+     * Best allocation found within the budget. It is optimal if the search finished in time; otherwise the result
+     * tells how far from optimal it might be. At least the greedy allocation is returned, even if that takes longer.
+     * Components are solved one after the other, smallest first, so that a large one does not starve the rest.
+     */
+    public KAuctionResult solve(long budget, TimeUnit unit) {
+        long startedAt = System.nanoTime();
+        long budgetNanos = unit.toNanos(budget);
+
+        List<int[]> components = KBid.getConflictComponents(bids);
+        components.sort(Comparator.comparingInt(component -> component.length));
+        Outcome[] outcomes = new Outcome[components.size()];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = single(components.get(i), remaining(budgetNanos, startedAt));
+        }
+        return toResult(outcomes, startedAt);
+    }
+
+    /**
+     * Same as solve(budget, unit), using every core.
+     * - Components are solved at once. Small ones are kept on this thread.
+     * - A single component is solved by a portfolio of searches, one per core. Searches try bids in different orders
+     * and prune with the best value any of them found. The first one to finish proves the best allocation optimal
+     * and stops the rest.
+     */
+    public KAuctionResult solveParallel(long budget, TimeUnit unit) {
+        return solveParallel(PORTFOLIO_THREADS, budget, unit);
+    }
+
+    /**
+     * @param searches portfolio size. Searches past the cores available wait for a free one.
+     */
+    public KAuctionResult solveParallel(int searches, long budget, TimeUnit unit) {
+        long startedAt = System.nanoTime();
+        long budgetNanos = unit.toNanos(budget);
+
+        List<int[]> components = KBid.getConflictComponents(bids);
+        if (components.size() == 1) {
+            Outcome outcome = portfolio(components.get(0), searches, budgetNanos, startedAt);
+            return toResult(new Outcome[]{outcome}, startedAt);
+        }
+
+        // Largest components are handed over first.
+        components.sort(Comparator.comparingInt(component -> -component.length));
+        Outcome[] outcomes = new Outcome[components.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < outcomes.length; i++) {
+            int[] component = components.get(i);
+            if (component.length <= SMALL_COMPONENT) {
+                continue;
+            }
+            int index = i;
+            futures.add(CompletableFuture.runAsync(() -> {
+                outcomes[index] = single(component, remaining(budgetNanos, startedAt));
+            }, getPortfolioPool()));
+        }
+        for (int i = 0; i < outcomes.length; i++) {
+            if (components.get(i).length <= SMALL_COMPONENT) {
+                outcomes[i] = single(components.get(i), remaining(budgetNanos, startedAt));
+            }
+        }
+        join(futures.toArray(new CompletableFuture<?>[futures.size()]));
+        return toResult(outcomes, startedAt);
+    }
+
+    private Outcome single(int[] component, long budgetNanos) {
+        SetPackingSolver solver = new SetPackingSolver(select(component));
+        solver.solve(budgetNanos);
+        return new Outcome(component, solver, solver.isOptimal(), solver.getUpperBound(), solver.getNodes());
+    }
+
+    private Outcome portfolio(int[] component, int searches, long budgetNanos, long startedAt) {
+        KBid[] componentBids = select(component);
+        SharedIncumbent shared = new SharedIncumbent();
+
+        SetPackingSolver.Order[] orders = SetPackingSolver.Order.values();
+        SetPackingSolver[] solvers = new SetPackingSolver[Math.max(1, searches)];
+        for (int i = 0; i < solvers.length; i++) {
+            if (i < orders.length) {
+                solvers[i] = new SetPackingSolver(componentBids, orders[i], 0, shared);
+            } else {
+                // Past the plain orders, the greedy one again, with some noise.
+                solvers[i] = new SetPackingSolver(componentBids, SetPackingSolver.Order.GREEDY, i, shared);
             }
         }
-        return winnerBids;
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[solvers.length - 1];
+        for (int i = 1; i < solvers.length; i++) {
+            SetPackingSolver solver = solvers[i];
+            futures[i - 1] = CompletableFuture.runAsync(() -> solver.solve(remaining(budgetNanos, startedAt)), getPortfolioPool());
+        }
+        solvers[0].solve(remaining(budgetNanos, startedAt)); // This thread would only be waiting otherwise.
+        join(futures);
+
+        SetPackingSolver best = solvers[0];
+        boolean optimal = false;
+        long upperBound = Long.MAX_VALUE;
+        long nodes = 0;
+        for (SetPackingSolver solver: solvers) {
+            if (solver.getValue() > best.getValue()) {
+                best = solver;
+            }
+            optimal |= solver.isOptimal();
+            upperBound = Math.min(upperBound, solver.getUpperBound());
+            nodes += solver.getNodes();
+        }
+        return new Outcome(component, best, optimal, optimal ? best.getValue() : upperBound, nodes);
+    }
+
+    private KBid[] select(int[] component) {
+        KBid[] componentBids = new KBid[component.length];
+        for (int i = 0; i < component.length; i++) {
+            componentBids[i] = bids[component[i]];
+        }
+        return componentBids;
     }
 
-    private void createModel() {
-        selectedBids = new BoolVar[bids.length];
-        selectedBidsWeights = new IntVar[bids.length];
-
-        // Variable initialization
-        int totalWeight = 0;
-        for (int i = 0; i < bids.length; i++) {
-            BoolVar selectedBid = model.boolVar("bid" + i);
-            IntVar selectedBidWeight = model.intScaleView(selectedBid, bids[i].value);
-            totalWeight += bids[i].value;
-            selectedBids[i] = selectedBid;
-            selectedBidsWeights[i] = selectedBidWeight;
+    private static void join(CompletableFuture<?>[] futures) {
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
         }
-        objective = model.intVar("objective", 0, totalWeight);
+    }
 
-        // Objective function
-        model.sum(selectedBidsWeights, "=", objective).post();
+    private static long remaining(long budgetNanos, long startedAt) {
+        return Math.max(0, budgetNanos - (System.nanoTime() - startedAt));
+    }
 
-        // Subject to
-        Map<Integer, List<Integer>> conflicts = KBid.getBidConflicts(bids);
-        for (Map.Entry<Integer, List<Integer>> conflictingBids: conflicts.entrySet()) {
-            IntVar[] c = new IntVar[conflictingBids.getValue().size()];
-            for (int i = 0; i < conflictingBids.getValue().size(); i++) {
-                c[i] = selectedBids[conflictingBids.getValue().get(i)];
+    private KAuctionResult toResult(Outcome[] outcomes, long startedAt) {
+        int winnerCount = 0;
+        for (Outcome outcome: outcomes) {
+            winnerCount += outcome.winners.length;
+        }
+        int[] winners = new int[winnerCount];
+        long value = 0;
+        long upperBound = 0;
+        boolean optimal = true;
+        long nodes = 0;
+        int next = 0;
+        for (Outcome outcome: outcomes) {
+            for (int winner: outcome.winners) {
+                winners[next++] = winner;
             }
-            model.sum(c, "<=", 1).post();
+            value += outcome.value;
+            upperBound += outcome.upperBound;
+            optimal &= outcome.optimal;
+            nodes += outcome.nodes;
         }
+        Arrays.sort(winners);
+
+        List<KBid> winnerBids = new ArrayList<>(winners.length);
+        for (int winner: winners) {
+            winnerBids.add(bids[winner]);
+        }
+        KAuctionResult result = new KAuctionResult(winnerBids, value, upperBound, optimal, nodes,
+                System.nanoTime() - startedAt);
+        stats.record(result);
+        return result;
+    }
+
+    private static synchronized Executor getPortfolioPool() {
+        if (portfolioPool == null) {
+            portfolioPool = Executors.newFixedThreadPool(PORTFOLIO_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "kauction-solver");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return portfolioPool;
+    }
+
+    public static KAuctionSolverStats getStats() {
+        return stats;
     }
 
+    /**
+     * Allocation of one component, with winners as indexes in bids.
+     */
+    private static class Outcome {
+
+        final int[] winners;
+        final long value;
+        final long upperBound;
+        final boolean optimal;
+        final long nodes;
+
+        Outcome(int[] component, SetPackingSolver solver, boolean optimal, long upperBound, long nodes) {
+            int[] componentWinners = solver.getWinners();
+            this.winners = new int[componentWinners.length];
+            for (int i = 0; i < componentWinners.length; i++) {
+                this.winners[i] = component[componentWinners[i]];
+            }
+            this.value = solver.getValue();
+            this.upperBound = upperBound;
+            this.optimal = optimal;
+            this.nodes = nodes;
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package main.java.combinatorial;
+
+import main.java.utils.LatencyStats;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the winner determinations run so far.
+ */
+public class KAuctionSolverStats {
+
+    private final LatencyStats solveStats = new LatencyStats();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder timedOut = new LongAdder(); // Ran out of time before proving optimality.
+    private final DoubleAdder totalGap = new DoubleAdder();
+    private volatile double lastGap;
+
+    void record(KAuctionResult result) {
+        solveStats.record(result.solveNanos);
+        nodes.add(result.nodes);
+        if (!result.optimal) {
+            timedOut.increment();
+        }
+        totalGap.add(result.getGap());
+        lastGap = result.getGap();
+    }
+
+    public LatencyStats getSolveStats() {
+        return solveStats;
+    }
+
+    public long getSolvedCount() {
+        return solveStats.getCount();
+    }
+
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    public double getMeanGap() {
+        long solved = getSolvedCount();
+        return solved == 0 ? 0 : totalGap.sum() / solved;
+    }
+
+    public double getLastGap() {
+        return lastGap;
+    }
+
+    @Override
+    public String toString() {
+        return "KAuctionSolverStats{" +
+                "solved=" + getSolvedCount() +
+                ", timedOut=" + getTimedOutCount() +
+                ", nodes=" + getNodes() +
+                ", meanGap=" + String.format("%.2f%%", getMeanGap() * 100) +
+                ", lastGap=" + String.format("%.2f%%", getLastGap() * 100) +
+                ", solve=" + solveStats +
+                '}';
+    }
+}
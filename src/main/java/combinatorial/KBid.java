@@ -1,34 +1,97 @@
 package main.java.combinatorial;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class KBid {
 
     public int id;
-    public int value;
+    public long value; // Cents, for bids of an auction. See LiveAuction.toKBids.
     public int[] goodsIds;
 
-    public KBid(int id, int value, int[] goodIds) {
+    public KBid(int id, long value, int[] goodIds) {
         this.id = id;
         this.value = value;
         this.goodsIds = goodIds;
     }
 
-    public static Map<Integer, List<Integer>> getBidConflicts(KBid[] bids) {
-        // Map of goodId <-> list of conflicting bids
-        Map<Integer, List<Integer>> conflicts = new HashMap<>();
+    /**
+     * Every sum of values the solvers make (allocations, bounds) is at most this one, so none of them overflows.
+     * @throws ArithmeticException if the positive values add up past Long.MAX_VALUE.
+     */
+    public static long getTotalValue(KBid[] bids) {
+        long total = 0;
+        for (KBid bid: bids) {
+            if (bid.value > 0) {
+                total = Math.addExact(total, bid.value);
+            }
+        }
+        return total;
+    }
 
+    /**
+     * @return for each good, the indexes of the bids asking for it.
+     */
+    public static IntListMap getBidConflicts(KBid[] bids) {
+        IntListMap conflicts = new IntListMap(bids.length); // Good ID <-> Conflicting bids
         for (int bid = 0; bid < bids.length; bid++) {
             for (int good: bids[bid].goodsIds) {
-                if (!conflicts.containsKey(good)) {
-                    conflicts.put(good, new ArrayList<>());
-                }
-                conflicts.get(good).add(bid);
+                conflicts.add(good, bid);
             }
         }
         return conflicts;
     }
 
+    /**
+     * Split the bids into groups that share no goods: bids asking for the same good (directly, or through other
+     * bids) end up in the same component. Union-find over the goods.
+     * @return for each component, the indexes of its bids, ascending.
+     */
+    public static List<int[]> getConflictComponents(KBid[] bids) {
+        IntListMap goodIndexes = new IntListMap(bids.length); // Good ID <-> Dense index, as entries
+        for (KBid bid: bids) {
+            for (int good: bid.goodsIds) {
+                goodIndexes.addKey(good);
+            }
+        }
+
+        // Goods of the same bid are joined.
+        int[] parents = new int[goodIndexes.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (KBid bid: bids) {
+            for (int i = 1; i < bid.goodsIds.length; i++) {
+                int first = find(parents, goodIndexes.entryOf(bid.goodsIds[0]));
+                int other = find(parents, goodIndexes.entryOf(bid.goodsIds[i]));
+                parents[other] = first;
+            }
+        }
+
+        IntListMap byRoot = new IntListMap();
+        List<int[]> components = new ArrayList<>();
+        for (int bid = 0; bid < bids.length; bid++) {
+            if (bids[bid].goodsIds.length == 0) {
+                components.add(new int[]{bid}); // Conflicts with nobody.
+                continue;
+            }
+            byRoot.add(find(parents, goodIndexes.entryOf(bids[bid].goodsIds[0])), bid);
+        }
+        for (int entry = 0; entry < byRoot.size(); entry++) {
+            components.add(byRoot.valuesAt(entry));
+        }
+        return components;
+    }
+
+    private static int find(int[] parents, int good) {
+        while (parents[good] != good) {
+            parents[good] = parents[parents[good]]; // Path halving.
+            good = parents[good];
+        }
+        return good;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -44,7 +107,7 @@ public class KBid {
     @Override
     public int hashCode() {
         int result = id;
-        result = 31 * result + value;
+        result = 31 * result + Long.hashCode(value);
         result = 31 * result + Arrays.hashCode(goodsIds);
         return result;
     }
@@ -0,0 +1,548 @@
+package main.java.combinatorial;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Weighted set packing by depth-first branch and bound: the set of bids with no goods in common and the highest
+ * total value.
+ * - Goods are renumbered from 0 and every bid keeps them as a bitset, so conflicts are checked a word at a time.
+ * - Bids that can never improve an allocation are removed upfront: bids without value, and bids dominated by
+ * another bid asking for a subset of their goods with at least the same value.
+ * - Search branches on goods: the free good with the fewest bids left either goes to one of those bids, or stays
+ * unsold. Every allocation is reached once.
+ * - A greedy allocation is the first incumbent. It may be warm started: the bids of a known allocation (i.e. the
+ * previous one, before some bids came in) are taken first and the greedy order fills in the rest.
+ * - A node is pruned when its value plus an upper bound of what is left cannot beat the incumbent. The bound is
+ * the lowest of the sum of the values of the bids that still fit, and the sum of the prices of the free goods,
+ * starting from their best value per good among those bids and then lowered while every bid stays covered (a
+ * solution of the dual of the LP relaxation, so never below the LP bound).
+ * - Anytime: given a time budget, search stops when it runs out and the incumbent is returned, along with the
+ * bound of the root node. Otherwise the incumbent is optimal.
+ * - Portfolio: solvers with different orders can share their incumbent, see SharedIncumbent. A solver that
+ * finishes then proves that nothing beats the shared value, which might have been found by another one.
+ */
+final class SetPackingSolver {
+
+    /**
+     * Order in which bids are tried, by the greedy allocation and by the search.
+     */
+    enum Order {
+        GREEDY, // Value over the square root of the number of goods.
+        VALUE,
+        VALUE_PER_GOOD;
+
+        double score(long value, int goodCount) {
+            switch (this) {
+                case VALUE: return value;
+                case VALUE_PER_GOOD: return (double) value / goodCount;
+                default: return value / Math.sqrt(goodCount);
+            }
+        }
+    }
+
+    private static final double EPSILON = 1e-6;
+    private static final double RELATIVE_EPSILON = 1e-12; // Rounding of prices, far above what doubles lose.
+    private static final double SCORE_NOISE = 0.2;
+
+    private final KBid[] bids;
+    private final Order order;
+    private final long seed; // Scores get some noise, unless 0.
+    private final SharedIncumbent shared; // Might be null.
+
+    // Candidates, in branching order.
+    private int size;
+    private int[] origin; // Index in bids.
+    private int[] candidateOf; // Candidate of each bid, or -1.
+    private long[] values; // Cents.
+    private int[][] goods;
+    private int[][] wordIndexes;
+    private long[][] wordMasks;
+    private int[][] bidsByGood; // Candidates asking for each good, in branching order.
+
+    private long[] used; // Goods taken (or left unsold) by the current node.
+    private int[][] alive; // Per depth, candidates that still fit.
+    private double[] prices; // Bound scratch, per good.
+    private int[] bidCounts; // Bound scratch, per good.
+    private int[] touched; // Bound scratch, goods with a price.
+
+    private int[] start; // Warm start, indexes in bids. Might be null.
+    private int[] chosen;
+    private int[] bestChosen;
+    private int bestCount;
+    private long bestValue;
+
+    private long startedAt;
+    private long budgetNanos;
+    private boolean stopped;
+    private long nodes;
+    private long rootBound;
+    private int[] always; // Bids without goods, which conflict with nobody.
+    private int alwaysCount;
+    private long alwaysValue;
+    private int[] winners;
+
+    SetPackingSolver(KBid[] bids) {
+        this(bids, Order.GREEDY, 0, null);
+    }
+
+    SetPackingSolver(KBid[] bids, Order order, long seed, SharedIncumbent shared) {
+        this.bids = bids;
+        this.order = order;
+        this.seed = seed;
+        this.shared = shared;
+    }
+
+    /**
+     * Take these bids first for the greedy allocation. To be called before solve.
+     * @param start indexes (in bids) of bids with no goods in common.
+     */
+    void setStart(int[] start) {
+        this.start = start;
+    }
+
+    /**
+     * @param budgetNanos time to search. The preparation and the greedy allocation always run to the end.
+     * @return indexes (in bids) of the winner bids, ascending.
+     */
+    int[] solve(long budgetNanos) {
+        this.startedAt = System.nanoTime();
+        this.budgetNanos = budgetNanos;
+
+        int goodCount = prepare();
+        for (int i = 0; i < alwaysCount; i++) {
+            alwaysValue += bids[always[i]].value;
+        }
+
+        chosen = new int[size];
+        bestChosen = new int[size];
+        used = new long[(goodCount + 63) >>> 6];
+        alive = new int[goodCount + 2][]; // Every level takes at least one good.
+        prices = new double[goodCount];
+        bidCounts = new int[goodCount];
+        touched = new int[goodCount];
+
+        int[] all = new int[size];
+        for (int i = 0; i < size; i++) {
+            all[i] = i;
+        }
+        greedy();
+        search(all, size, 0, 0, 0);
+        if (!stopped && shared != null) {
+            shared.prove();
+        }
+
+        winners = new int[bestCount + alwaysCount];
+        for (int i = 0; i < bestCount; i++) {
+            winners[i] = origin[bestChosen[i]];
+        }
+        System.arraycopy(always, 0, winners, bestCount, alwaysCount);
+        Arrays.sort(winners);
+        return winners;
+    }
+
+    /**
+     * @return indexes (in bids) of the winner bids, ascending.
+     */
+    int[] getWinners() {
+        return winners;
+    }
+
+    long getValue() {
+        return alwaysValue + bestValue;
+    }
+
+    /**
+     * @return value that no allocation can beat. Same as the (shared) incumbent value if the search finished.
+     */
+    long getUpperBound() {
+        return alwaysValue + (isOptimal() ? incumbent() : Math.max(incumbent(), rootBound));
+    }
+
+    /**
+     * @return false if the search ran out of time.
+     */
+    boolean isOptimal() {
+        return !stopped;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Renumber goods, drop the bids that cannot improve an allocation and sort the rest in branching order.
+     * @return number of goods.
+     */
+    private int prepare() {
+        IntListMap goodIndexes = new IntListMap(bids.length); // Good ID <-> Dense index, as entries
+        int[][] bidGoods = new int[bids.length][];
+        for (int bid = 0; bid < bids.length; bid++) {
+            int[] dense = new int[bids[bid].goodsIds.length];
+            for (int i = 0; i < dense.length; i++) {
+                dense[i] = goodIndexes.addKey(bids[bid].goodsIds[i]);
+            }
+            bidGoods[bid] = sortedDistinct(dense);
+        }
+        int goodCount = goodIndexes.size();
+
+        always = new int[bids.length];
+        int[] candidates = new int[bids.length];
+        int candidateCount = 0;
+        for (int bid = 0; bid < bids.length; bid++) {
+            if (bids[bid].value <= 0) {
+                continue;
+            }
+            if (bidGoods[bid].length == 0) {
+                always[alwaysCount++] = bid;
+            } else {
+                candidates[candidateCount++] = bid;
+            }
+        }
+        candidateCount = undominated(candidates, candidateCount, bidGoods, goodCount);
+
+        double[] scores = new double[bids.length];
+        Random random = new Random(seed);
+        for (int i = 0; i < candidateCount; i++) {
+            int bid = candidates[i];
+            scores[bid] = order.score(bids[bid].value, bidGoods[bid].length);
+            if (seed != 0) {
+                scores[bid] *= 1 + SCORE_NOISE * random.nextDouble();
+            }
+        }
+        sortByScore(candidates, candidateCount, scores);
+
+        size = candidateCount;
+        origin = new int[size];
+        candidateOf = new int[bids.length];
+        Arrays.fill(candidateOf, -1);
+        values = new long[size];
+        goods = new int[size][];
+        wordIndexes = new int[size][];
+        wordMasks = new long[size][];
+        for (int i = 0; i < size; i++) {
+            int bid = candidates[i];
+            origin[i] = bid;
+            candidateOf[bid] = i;
+            values[i] = bids[bid].value;
+            goods[i] = bidGoods[bid];
+            toWords(i);
+        }
+        bidsByGood = byGood(size, goods, goodCount);
+        return goodCount;
+    }
+
+    private static int[] sortedDistinct(int[] goods) {
+        Arrays.sort(goods);
+        int distinct = 0;
+        for (int i = 0; i < goods.length; i++) {
+            if (i == 0 || goods[i] != goods[i - 1]) {
+                goods[distinct++] = goods[i];
+            }
+        }
+        return distinct == goods.length ? goods : Arrays.copyOf(goods, distinct);
+    }
+
+    /**
+     * Sort the bids by descending score, then ascending index. A merge sort, which does not box them.
+     */
+    private static void sortByScore(int[] candidates, int count, double[] scores) {
+        int[] buffer = new int[count];
+        for (int width = 1; width < count; width *= 2) {
+            for (int from = 0; from < count - width; from += 2 * width) {
+                int middle = from + width;
+                int to = Math.min(from + 2 * width, count);
+                int left = from;
+                int right = middle;
+                for (int i = from; i < to; i++) {
+                    if (right >= to || (left < middle && !before(candidates[right], candidates[left], scores))) {
+                        buffer[i] = candidates[left++];
+                    } else {
+                        buffer[i] = candidates[right++];
+                    }
+                }
+                System.arraycopy(buffer, from, candidates, from, to - from);
+            }
+        }
+    }
+
+    private static boolean before(int a, int b, double[] scores) {
+        int byScore = Double.compare(scores[b], scores[a]);
+        return byScore != 0 ? byScore < 0 : a < b;
+    }
+
+    /**
+     * Remove the bids for which another bid asks for a subset of the goods, with at least the same value.
+     * Among equal bids the first one is kept.
+     * @return number of candidates left, at the start of candidates.
+     */
+    private int undominated(int[] candidates, int candidateCount, int[][] bidGoods, int goodCount) {
+        int[][] bidsByGood = byGood(bids.length, bidGoods, goodCount);
+
+        long[] marked = new long[(goodCount + 63) >>> 6];
+        int undominatedCount = 0;
+        for (int c = 0; c < candidateCount; c++) {
+            int bid = candidates[c];
+            for (int good: bidGoods[bid]) {
+                marked[good >>> 6] |= 1L << good;
+            }
+            boolean dominated = false;
+            for (int i = 0; i < bidGoods[bid].length && !dominated; i++) {
+                for (int other: bidsByGood[bidGoods[bid][i]]) {
+                    if (other != bid && dominates(other, bid, bidGoods, marked)) {
+                        dominated = true;
+                        break;
+                    }
+                }
+            }
+            for (int good: bidGoods[bid]) {
+                marked[good >>> 6] &= ~(1L << good);
+            }
+            if (!dominated) {
+                candidates[undominatedCount++] = bid;
+            }
+        }
+        return undominatedCount;
+    }
+
+    /**
+     * @return for each good, the bids asking for it, ascending.
+     */
+    private static int[][] byGood(int bidCount, int[][] bidGoods, int goodCount) {
+        int[] counts = new int[goodCount];
+        for (int bid = 0; bid < bidCount; bid++) {
+            for (int good: bidGoods[bid]) {
+                counts[good]++;
+            }
+        }
+        int[][] bidsByGood = new int[goodCount][];
+        for (int good = 0; good < goodCount; good++) {
+            bidsByGood[good] = new int[counts[good]];
+            counts[good] = 0;
+        }
+        for (int bid = 0; bid < bidCount; bid++) {
+            for (int good: bidGoods[bid]) {
+                bidsByGood[good][counts[good]++] = bid;
+            }
+        }
+        return bidsByGood;
+    }
+
+    /**
+     * @param marked goods of bid, as a bitset.
+     */
+    private boolean dominates(int other, int bid, int[][] bidGoods, long[] marked) {
+        long otherValue = bids[other].value;
+        long bidValue = bids[bid].value;
+        if (otherValue < bidValue || bidGoods[other].length > bidGoods[bid].length) {
+            return false;
+        }
+        for (int good: bidGoods[other]) {
+            if ((marked[good >>> 6] & (1L << good)) == 0) {
+                return false;
+            }
+        }
+        return otherValue > bidValue || bidGoods[other].length < bidGoods[bid].length || other < bid;
+    }
+
+    private void toWords(int candidate) {
+        int[] candidateGoods = goods[candidate];
+        int words = 0;
+        for (int i = 0; i < candidateGoods.length; i++) {
+            if (i == 0 || (candidateGoods[i] >>> 6) != (candidateGoods[i - 1] >>> 6)) {
+                words++;
+            }
+        }
+        wordIndexes[candidate] = new int[words];
+        wordMasks[candidate] = new long[words];
+        int word = -1;
+        for (int i = 0; i < candidateGoods.length; i++) {
+            if (i == 0 || (candidateGoods[i] >>> 6) != (candidateGoods[i - 1] >>> 6)) {
+                word++;
+                wordIndexes[candidate][word] = candidateGoods[i] >>> 6;
+            }
+            wordMasks[candidate][word] |= 1L << candidateGoods[i];
+        }
+    }
+
+    private void greedy() {
+        long value = 0;
+        int count = 0;
+        if (start != null) {
+            // Dropped bids are left out, the greedy order may take a better one in their place.
+            for (int bid: start) {
+                int candidate = candidateOf[bid];
+                if (candidate != -1 && fits(candidate)) {
+                    place(candidate);
+                    chosen[count++] = candidate;
+                    value += values[candidate];
+                }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (fits(i)) {
+                place(i);
+                chosen[count++] = i;
+                value += values[i];
+            }
+        }
+        record(value, count);
+        for (int i = 0; i < count; i++) {
+            unplace(chosen[i]);
+        }
+    }
+
+    /**
+     * @param candidates the candidates that fitted the parent node.
+     */
+    private void search(int[] candidates, int candidateCount, long value, int chosenCount, int depth) {
+        if (value > bestValue) {
+            record(value, chosenCount);
+        }
+        nodes++;
+        if (System.nanoTime() - startedAt > budgetNanos || (shared != null && shared.isProven())) {
+            stopped = true; // Checking is cheap next to the node itself.
+        }
+        if (stopped) {
+            return;
+        }
+
+        // Candidates that still fit, the bound of what they can add, and the good to branch on.
+        if (alive[depth] == null || alive[depth].length < candidateCount) {
+            alive[depth] = new int[candidateCount];
+        }
+        int[] fitting = alive[depth];
+        int fittingCount = 0;
+        long sum = 0;
+        int touchedCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int candidate = candidates[i];
+            if (!fits(candidate)) {
+                continue;
+            }
+            fitting[fittingCount++] = candidate;
+            sum += values[candidate];
+            double price = (double) values[candidate] / goods[candidate].length;
+            for (int good: goods[candidate]) {
+                if (bidCounts[good]++ == 0) {
+                    touched[touchedCount++] = good;
+                }
+                if (price > prices[good]) {
+                    prices[good] = price;
+                }
+            }
+        }
+        tightenPrices(touchedCount);
+        double priced = 0;
+        int branchGood = -1;
+        for (int i = 0; i < touchedCount; i++) {
+            int good = touched[i];
+            priced += prices[good];
+            if (branchGood == -1 || bidCounts[good] < bidCounts[branchGood]) {
+                branchGood = good;
+            }
+        }
+        for (int i = 0; i < touchedCount; i++) {
+            prices[touched[i]] = 0;
+            bidCounts[touched[i]] = 0;
+        }
+
+        // Prices are doubles: rounded up enough that the bound never ends up below the exact one.
+        long bound = Math.min(sum, (long) Math.floor(priced + EPSILON + priced * RELATIVE_EPSILON));
+        if (depth == 0) {
+            rootBound = bound;
+        }
+        if (fittingCount == 0 || value + bound <= incumbent()) {
+            return;
+        }
+
+        // The good goes to one of its bids...
+        for (int candidate: bidsByGood[branchGood]) {
+            if (stopped || value + bound <= incumbent()) {
+                return;
+            }
+            if (!fits(candidate)) {
+                continue;
+            }
+            place(candidate);
+            chosen[chosenCount] = candidate;
+            search(fitting, fittingCount, value + values[candidate], chosenCount + 1, depth + 1);
+            unplace(candidate);
+        }
+
+        // ... or stays unsold.
+        used[branchGood >>> 6] |= 1L << branchGood;
+        search(fitting, fittingCount, value, chosenCount, depth + 1);
+        used[branchGood >>> 6] &= ~(1L << branchGood);
+    }
+
+    /**
+     * Lower the price of each good, one after the other, as far as the bids that fit allow: no bid may be worth
+     * more than the prices of its goods. Prices stay a solution of the dual, the bound only gets tighter.
+     * A single pass gets most of it; more passes cost more than they prune.
+     */
+    private void tightenPrices(int touchedCount) {
+        for (int i = 0; i < touchedCount; i++) {
+            int good = touched[i];
+            double price = 0;
+            for (int candidate: bidsByGood[good]) {
+                if (!fits(candidate)) {
+                    continue;
+                }
+                double rest = values[candidate];
+                for (int other: goods[candidate]) {
+                    if (other != good) {
+                        rest -= prices[other];
+                    }
+                }
+                if (rest > price) {
+                    price = rest;
+                }
+            }
+            prices[good] = price;
+        }
+    }
+
+    private boolean fits(int candidate) {
+        int[] indexes = wordIndexes[candidate];
+        long[] masks = wordMasks[candidate];
+        for (int i = 0; i < indexes.length; i++) {
+            if ((used[indexes[i]] & masks[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void place(int candidate) {
+        int[] indexes = wordIndexes[candidate];
+        long[] masks = wordMasks[candidate];
+        for (int i = 0; i < indexes.length; i++) {
+            used[indexes[i]] |= masks[i];
+        }
+    }
+
+    private void unplace(int candidate) {
+        int[] indexes = wordIndexes[candidate];
+        long[] masks = wordMasks[candidate];
+        for (int i = 0; i < indexes.length; i++) {
+            used[indexes[i]] &= ~masks[i];
+        }
+    }
+
+    /**
+     * @return value to beat.
+     */
+    private long incumbent() {
+        return shared == null ? bestValue : Math.max(bestValue, shared.get());
+    }
+
+    private void record(long value, int count) {
+        bestValue = value;
+        bestCount = count;
+        System.arraycopy(chosen, 0, bestChosen, 0, count);
+        if (shared != null) {
+            shared.offer(value);
+        }
+    }
+}
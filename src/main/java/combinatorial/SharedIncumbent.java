@@ -0,0 +1,29 @@
+package main.java.combinatorial;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Best value found so far by any solver of a portfolio, so that each one prunes with what the others found.
+ * Once one of them proves its search finished, the others can stop.
+ */
+final class SharedIncumbent {
+
+    private final AtomicLong value = new AtomicLong();
+    private volatile boolean proven;
+
+    long get() {
+        return value.get();
+    }
+
+    void offer(long newValue) {
+        value.accumulateAndGet(newValue, Math::max);
+    }
+
+    boolean isProven() {
+        return proven;
+    }
+
+    void prove() {
+        proven = true;
+    }
+}
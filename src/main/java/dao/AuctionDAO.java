@@ -3,12 +3,33 @@ package main.java.dao;
 import main.java.models.Auction;
 
 import java.util.List;
+import java.util.Map;
 
 public interface AuctionDAO extends CRUD<Auction> {
 
     List<Auction> getListByEventId(int eventId) throws DAOException;
 
-    List<Auction> getListByWinnerId(int winnerId) throws DAOException;
+    /**
+     * Oldest first.
+     * @param status to keep, or null for any.
+     */
+    List<Auction> getListByEventId(int eventId, String status, Page page) throws DAOException;
+
+    /**
+     * Oldest first.
+     */
+    List<Auction> getListByWinnerId(int winnerId, Page page) throws DAOException;
 
     Auction getAuctionWhereUserIsBidding(int userId) throws DAOException;
+
+    boolean updateMaxBid(int auctionId, double maxBid) throws DAOException;
+
+    /**
+     * Update the auction and move the credits of its settlement, all in one transaction: either all of it happens or
+     * none. Credits are batched into a single round trip.
+     * @param credits User ID <-> Credit to add (negative to take).
+     * @return the updated auction, or null (and nothing settled) if it does not exist.
+     * @throws DAOException also if a user to credit does not exist. Nothing is settled then either.
+     */
+    Auction settle(Auction auction, Map<Integer, Double> credits) throws DAOException;
 }
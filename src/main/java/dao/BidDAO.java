@@ -6,6 +6,9 @@ import java.util.List;
 
 public interface BidDAO extends CRUD<Bid> {
 
-    List<Bid> getListByOwnerId(int userId) throws DAOException;
+    /**
+     * Oldest first.
+     */
+    List<Bid> getListByOwnerId(int userId, Page page) throws DAOException;
     List<Bid> getListByAuctionId(int auctionId) throws DAOException;
 }
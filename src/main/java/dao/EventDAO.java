@@ -6,6 +6,10 @@ import java.util.List;
 
 public interface EventDAO extends CRUD<Event> {
 
-    List<Event> getList() throws DAOException;
+    /**
+     * Newest first.
+     * @param status to keep, or null for any. Same for category.
+     */
+    List<Event> getList(Page page, String status, String category) throws DAOException;
 
 }
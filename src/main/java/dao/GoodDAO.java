@@ -6,4 +6,9 @@ import java.util.List;
 
 public interface GoodDAO extends CRUD<Good> {
     List<Good> getListByAuctionId(int auctionId) throws DAOException;
+
+    /**
+     * Oldest first.
+     */
+    List<Good> getListByAuctionId(int auctionId, Page page) throws DAOException;
 }
@@ -0,0 +1,53 @@
+package main.java.dao;
+
+import main.java.utils.Validator;
+
+/**
+ * Keyset page of a list: at most limit rows, the ones that come after the row with ID after, in the order of the list.
+ * Unlike an offset, it costs the same wherever in the list the page is, and rows added in the meantime do not shift it.
+ * Clients ask for the next page with the ID of the last row they got.
+ */
+public class Page {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    public static final String INVALID = "Invalid page: after and limit have to be positive numbers";
+
+    public final int after; // 0 for the first page.
+    public final int limit;
+
+    public Page(int after, int limit) {
+        this.after = after;
+        this.limit = limit;
+    }
+
+    public static Page first() {
+        return new Page(0, DEFAULT_LIMIT);
+    }
+
+    public boolean isFirst() {
+        return after == 0;
+    }
+
+    /**
+     * Page of the request parameters, either of which can be missing. Limits past MAX_LIMIT are brought down to it.
+     * @return null if invalid.
+     */
+    public static Page parse(String after, String limit) {
+        if ((after != null && !Validator.isNumber(after)) || (limit != null && !Validator.isNumber(limit))) {
+            return null;
+        }
+        int afterId = after == null ? 0 : Integer.parseInt(after);
+        int limitCount = limit == null ? DEFAULT_LIMIT : Integer.parseInt(limit);
+        if (afterId < 0 || limitCount <= 0) {
+            return null;
+        }
+        return new Page(afterId, Math.min(limitCount, MAX_LIMIT));
+    }
+
+    @Override
+    public String toString() {
+        return "Page{after=" + after + ", limit=" + limit + '}';
+    }
+}
@@ -5,4 +5,11 @@ import main.java.models.User;
 public interface UserDAO extends CRUD<User> {
 
     User getByEmail(String email) throws DAOException;
+
+    /**
+     * Add to the credit of the user in place, without reading it first, so concurrent changes are not lost.
+     * @param credit to add, negative to take.
+     * @return the updated user, or null (and nothing changed) if it does not exist or its credit would go negative.
+     */
+    User addCredit(int userId, double credit) throws DAOException;
 }
@@ -0,0 +1,97 @@
+package main.java.dao.cache;
+
+import main.java.dao.AuctionDAO;
+import main.java.dao.DAOException;
+import main.java.dao.Page;
+import main.java.models.Auction;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AuctionDAO reading auctions by ID through EntityCaches.AUCTIONS.
+ */
+public class CachedAuctionDAO implements AuctionDAO {
+
+    private final AuctionDAO dao;
+    private final EntityCache<Auction> cache;
+
+    public CachedAuctionDAO(AuctionDAO dao) {
+        this(dao, EntityCaches.AUCTIONS);
+    }
+
+    CachedAuctionDAO(AuctionDAO dao, EntityCache<Auction> cache) {
+        this.dao = dao;
+        this.cache = cache;
+    }
+
+    @Override
+    public Auction create(Auction auction) throws DAOException {
+        return dao.create(auction);
+    }
+
+    @Override
+    public Auction getById(int auctionId) throws DAOException {
+        return cache.get(auctionId, dao::getById);
+    }
+
+    @Override
+    public List<Auction> getListByEventId(int eventId) throws DAOException {
+        return dao.getListByEventId(eventId);
+    }
+
+    @Override
+    public List<Auction> getListByEventId(int eventId, String status, Page page) throws DAOException {
+        return dao.getListByEventId(eventId, status, page);
+    }
+
+    @Override
+    public List<Auction> getListByWinnerId(int winnerId, Page page) throws DAOException {
+        return dao.getListByWinnerId(winnerId, page);
+    }
+
+    @Override
+    public Auction getAuctionWhereUserIsBidding(int userId) throws DAOException {
+        return dao.getAuctionWhereUserIsBidding(userId);
+    }
+
+    @Override
+    public Auction update(Auction auction) throws DAOException {
+        try {
+            return dao.update(auction);
+        } finally {
+            cache.invalidate(auction.id);
+        }
+    }
+
+    @Override
+    public boolean updateMaxBid(int auctionId, double maxBid) throws DAOException {
+        try {
+            return dao.updateMaxBid(auctionId, maxBid);
+        } finally {
+            cache.invalidate(auctionId);
+        }
+    }
+
+    @Override
+    public Auction settle(Auction auction, Map<Integer, Double> credits) throws DAOException {
+        try {
+            return dao.settle(auction, credits);
+        } finally {
+            cache.invalidate(auction.id);
+            for (int userId: credits.keySet()) {
+                EntityCaches.USERS.invalidate(userId);
+            }
+        }
+    }
+
+    @Override
+    public boolean delete(int auctionId) throws DAOException {
+        try {
+            return dao.delete(auctionId);
+        } finally {
+            cache.invalidate(auctionId);
+            EntityCaches.GOODS.clear(); // Deleted along with the auction.
+        }
+    }
+}
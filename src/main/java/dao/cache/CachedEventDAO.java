@@ -0,0 +1,59 @@
+package main.java.dao.cache;
+
+import main.java.dao.DAOException;
+import main.java.dao.EventDAO;
+import main.java.dao.Page;
+import main.java.models.Event;
+
+import java.util.List;
+
+/**
+ * EventDAO reading events by ID through EntityCaches.EVENTS.
+ */
+public class CachedEventDAO implements EventDAO {
+
+    private final EventDAO dao;
+    private final EntityCache<Event> cache;
+
+    public CachedEventDAO(EventDAO dao) {
+        this(dao, EntityCaches.EVENTS);
+    }
+
+    CachedEventDAO(EventDAO dao, EntityCache<Event> cache) {
+        this.dao = dao;
+        this.cache = cache;
+    }
+
+    @Override
+    public Event create(Event event) throws DAOException {
+        return dao.create(event);
+    }
+
+    @Override
+    public Event getById(int eventId) throws DAOException {
+        return cache.get(eventId, dao::getById);
+    }
+
+    @Override
+    public List<Event> getList(Page page, String status, String category) throws DAOException {
+        return dao.getList(page, status, category);
+    }
+
+    @Override
+    public Event update(Event event) throws DAOException {
+        try {
+            return dao.update(event);
+        } finally {
+            cache.invalidate(event.id);
+        }
+    }
+
+    @Override
+    public boolean delete(int eventId) throws DAOException {
+        try {
+            return dao.delete(eventId);
+        } finally {
+            cache.invalidate(eventId);
+        }
+    }
+}
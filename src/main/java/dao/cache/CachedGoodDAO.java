@@ -0,0 +1,64 @@
+package main.java.dao.cache;
+
+import main.java.dao.DAOException;
+import main.java.dao.GoodDAO;
+import main.java.dao.Page;
+import main.java.models.Good;
+
+import java.util.List;
+
+/**
+ * GoodDAO reading goods by ID through EntityCaches.GOODS.
+ */
+public class CachedGoodDAO implements GoodDAO {
+
+    private final GoodDAO dao;
+    private final EntityCache<Good> cache;
+
+    public CachedGoodDAO(GoodDAO dao) {
+        this(dao, EntityCaches.GOODS);
+    }
+
+    CachedGoodDAO(GoodDAO dao, EntityCache<Good> cache) {
+        this.dao = dao;
+        this.cache = cache;
+    }
+
+    @Override
+    public Good create(Good good) throws DAOException {
+        return dao.create(good);
+    }
+
+    @Override
+    public Good getById(int goodId) throws DAOException {
+        return cache.get(goodId, dao::getById);
+    }
+
+    @Override
+    public List<Good> getListByAuctionId(int auctionId) throws DAOException {
+        return dao.getListByAuctionId(auctionId);
+    }
+
+    @Override
+    public List<Good> getListByAuctionId(int auctionId, Page page) throws DAOException {
+        return dao.getListByAuctionId(auctionId, page);
+    }
+
+    @Override
+    public Good update(Good good) throws DAOException {
+        try {
+            return dao.update(good);
+        } finally {
+            cache.invalidate(good.id);
+        }
+    }
+
+    @Override
+    public boolean delete(int goodId) throws DAOException {
+        try {
+            return dao.delete(goodId);
+        } finally {
+            cache.invalidate(goodId);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package main.java.dao.cache;
+
+import main.java.dao.DAOException;
+import main.java.dao.UserDAO;
+import main.java.models.User;
+
+/**
+ * UserDAO reading users by ID through EntityCaches.USERS. Lookups by email go to the DB.
+ */
+public class CachedUserDAO implements UserDAO {
+
+    private final UserDAO dao;
+    private final EntityCache<User> cache;
+
+    public CachedUserDAO(UserDAO dao) {
+        this(dao, EntityCaches.USERS);
+    }
+
+    CachedUserDAO(UserDAO dao, EntityCache<User> cache) {
+        this.dao = dao;
+        this.cache = cache;
+    }
+
+    @Override
+    public User create(User user) throws DAOException {
+        return dao.create(user);
+    }
+
+    @Override
+    public User getById(int userId) throws DAOException {
+        return cache.get(userId, dao::getById);
+    }
+
+    @Override
+    public User getByEmail(String email) throws DAOException {
+        return dao.getByEmail(email);
+    }
+
+    @Override
+    public User update(User user) throws DAOException {
+        try {
+            return dao.update(user);
+        } finally {
+            cache.invalidate(user.id);
+        }
+    }
+
+    @Override
+    public User addCredit(int userId, double credit) throws DAOException {
+        try {
+            return dao.addCredit(userId, credit);
+        } finally {
+            cache.invalidate(userId);
+        }
+    }
+
+    @Override
+    public boolean delete(int userId) throws DAOException {
+        try {
+            return dao.delete(userId);
+        } finally {
+            cache.invalidate(userId);
+        }
+    }
+}
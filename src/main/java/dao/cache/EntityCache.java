@@ -0,0 +1,152 @@
+package main.java.dao.cache;
+
+import main.java.dao.DAOException;
+import main.java.models.ModelAbstract;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache of entities by ID.
+ * - Bounded: past maxSize entries, the least recently used one is evicted. Entries also expire after the TTL, which
+ * bounds how stale a row changed behind the DAOs' back can be.
+ * - Writes invalidate (see invalidate), they do not populate: the next read loads the row as the DB has it.
+ * - Models are mutable, so the cache keeps its own copy and hands out copies.
+ */
+public class EntityCache<T extends ModelAbstract> {
+
+    public interface Loader<T> {
+        T load(int id) throws DAOException;
+    }
+
+    private final String name;
+    private final UnaryOperator<T> copy;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final Map<Integer, Entry<T>> entries; // Guarded by this.
+    private long generation; // Bumped by every invalidation. Guarded by this.
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder(); // By size or TTL.
+    private final LongAdder invalidations = new LongAdder();
+
+    public EntityCache(String name, UnaryOperator<T> copy, int maxSize, long ttl, TimeUnit unit) {
+        this(name, copy, maxSize, ttl, unit, System::nanoTime);
+    }
+
+    EntityCache(String name, UnaryOperator<T> copy, int maxSize, long ttl, TimeUnit unit, LongSupplier clock) {
+        this.name = name;
+        this.copy = copy;
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+        this.entries = new LinkedHashMap<Integer, Entry<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<T>> eldest) {
+                if (size() <= EntityCache.this.maxSize) {
+                    return false;
+                }
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return a copy of the cached entity, or the one the loader gives if there is none. Nulls are not cached.
+     */
+    public T get(int id, Loader<T> loader) throws DAOException {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<T> entry = entries.get(id);
+            if (entry != null) {
+                if (clock.getAsLong() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return copy.apply(entry.value);
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        misses.increment();
+        long loadedAt = clock.getAsLong();
+        T value = loader.load(id);
+        if (value != null) {
+            T cached = copy.apply(value);
+            synchronized (this) {
+                // An invalidation while loading may have come after the read: the value might be stale already.
+                if (generation == loadGeneration) {
+                    entries.put(id, new Entry<>(cached, loadedAt));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * To be called once the write is done, so that reads racing with it do not cache the row as it was.
+     */
+    public synchronized void invalidate(int id) {
+        generation++;
+        entries.remove(id);
+        invalidations.increment();
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        invalidations.increment();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{" +
+                "name=" + name +
+                ", size=" + size() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", evictions=" + getEvictions() +
+                ", invalidations=" + getInvalidations() +
+                '}';
+    }
+
+    private static class Entry<T> {
+
+        final T value;
+        final long loadedAt;
+
+        Entry(T value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package main.java.dao.cache;
+
+import main.java.models.Auction;
+import main.java.models.Event;
+import main.java.models.Good;
+import main.java.models.User;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity caches shared by the DAOs. A write through one DAO may have to invalidate rows of another, i.e. settling an
+ * auction changes the credit of its users.
+ */
+public final class EntityCaches {
+
+    private static final int MAX_SIZE = 4096; // Per entity.
+    private static final long TTL_SECONDS = 30;
+
+    public static final EntityCache<Auction> AUCTIONS =
+            new EntityCache<>("auction", Auction::clone, MAX_SIZE, TTL_SECONDS, TimeUnit.SECONDS);
+    public static final EntityCache<Event> EVENTS =
+            new EntityCache<>("event", Event::clone, MAX_SIZE, TTL_SECONDS, TimeUnit.SECONDS);
+    public static final EntityCache<Good> GOODS =
+            new EntityCache<>("good", Good::clone, MAX_SIZE, TTL_SECONDS, TimeUnit.SECONDS);
+    public static final EntityCache<User> USERS =
+            new EntityCache<>("user", User::clone, MAX_SIZE, TTL_SECONDS, TimeUnit.SECONDS);
+
+    private EntityCaches() {}
+
+    /**
+     * For when the DB is changed behind the DAOs' back, i.e. it is reset.
+     */
+    public static void clearAll() {
+        AUCTIONS.clear();
+        EVENTS.clear();
+        GOODS.clear();
+        USERS.clear();
+    }
+}
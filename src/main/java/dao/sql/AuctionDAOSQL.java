@@ -2,14 +2,19 @@ package main.java.dao.sql;
 
 import main.java.dao.AuctionDAO;
 import main.java.dao.DAOException;
+import main.java.dao.Page;
+import main.java.dao.cache.CachedAuctionDAO;
 import main.java.dao.NotFoundException;
 import main.java.db.Source;
 import main.java.models.Auction;
 
 import javax.naming.NamingException;
 import java.sql.*;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 public class AuctionDAOSQL extends SQLDAOAbstract<Auction> implements AuctionDAO {
 
@@ -25,6 +30,14 @@ public class AuctionDAOSQL extends SQLDAOAbstract<Auction> implements AuctionDAO
     private static final String DB_COMBINATORIAL_WINNERS = "combinatorial_winners";
     private static final String DB_MAX_BID = "max_bid";
 
+    private static final String UPDATE_QUERY = "UPDATE public.auction " +
+            "SET name = ?, starting_price = ?, " +
+            "start_time = ?, event = ?, " +
+            "owner = ?, status = ?, winner = ?, ending_time = ?, combinatorial_winners = ?, max_bid = ? " +
+            "WHERE id = ? " +
+            "RETURNING *";
+    private static final String CREDIT_QUERY = "UPDATE public.user SET credit = credit + ? WHERE id = ?";
+
     private static AuctionDAO instance;
 
     private AuctionDAOSQL() {
@@ -33,18 +46,18 @@ public class AuctionDAOSQL extends SQLDAOAbstract<Auction> implements AuctionDAO
 
     public static AuctionDAO getInstance() {
         if (instance == null) {
-            instance = new AuctionDAOSQL();
+            instance = new CachedAuctionDAO(new AuctionDAOSQL());
         }
         return instance;
     }
     
     public Auction create(Auction auction) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "INSERT INTO public.auction (name, starting_price, start_time, event, owner, status, winner, ending_time, combinatorial_winners, max_bid) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, auction.name);
             statement.setDouble(2, auction.startingPrice);
             statement.setTimestamp(3, auction.startTime);
@@ -59,27 +72,25 @@ public class AuctionDAOSQL extends SQLDAOAbstract<Auction> implements AuctionDAO
             statement.setTimestamp(8, auction.endingTime);
             statement.setString(9, auction.combinatorialWinners);
             statement.setDouble(10, auction.startingPrice);
-            statement.executeUpdate();
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException |SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Auction getById(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.auction WHERE \"auction\".id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
 
-            if (!resultSet.next()) {
-                return null;
+                return objectFromResultSet(resultSet);
             }
-
-            return objectFromResultSet(resultSet);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
@@ -87,21 +98,21 @@ public class AuctionDAOSQL extends SQLDAOAbstract<Auction> implements AuctionDAO
 
     @Override
     public Auction getAuctionWhereUserIsBidding(int userId) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT a.* FROM public.auction a " +
                     "INNER JOIN public.bid b ON a.id = b.auction " +
-                    "WHERE a.status = \'IN_PROGRESS\' AND b.owner = ?";
+                    "WHERE a.status = \'IN_PROGRESS\' AND b.owner = ? " +
+                    "LIMIT 1";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, userId);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
 
-            if (!resultSet.next()) {
-                return null;
+                return objectFromResultSet(resultSet);
             }
-
-            return objectFromResultSet(resultSet);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
@@ -109,85 +120,166 @@ public class AuctionDAOSQL extends SQLDAOAbstract<Auction> implements AuctionDAO
 
     @Override
     public List<Auction> getListByEventId(int eventId) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.auction WHERE \"event\" = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, eventId);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Auction> auctionList = new LinkedList<>();
+                while (resultSet.next()) {
+                    auctionList.add(objectFromResultSet(resultSet));
+                }
 
-            List<Auction> auctionList = new LinkedList<>();
-            while (resultSet.next()) {
-                auctionList.add(objectFromResultSet(resultSet));
+                return auctionList;
             }
+        } catch (NamingException|SQLException e) {
+            throw new DAOException(e);
+        }
+    }
 
-            return auctionList;
+    @Override
+    public List<Auction> getListByEventId(int eventId, String status, Page page) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            String query = "SELECT * FROM public.auction WHERE \"event\" = ? AND \"auction\".id > ? " +
+                    (status == null ? "" : "AND \"status\" = ? ") +
+                    "ORDER BY \"auction\".id LIMIT ?";
+
+            PreparedStatement statement = prepare(connection, query);
+            int parameter = 1;
+            statement.setInt(parameter++, eventId);
+            statement.setInt(parameter++, page.after);
+            if (status != null) {
+                statement.setString(parameter++, status);
+            }
+            statement.setInt(parameter, page.limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Auction> auctionList = new ArrayList<>(page.limit);
+                while (resultSet.next()) {
+                    auctionList.add(objectFromResultSet(resultSet));
+                }
+
+                return auctionList;
+            }
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     @Override
-    public List<Auction> getListByWinnerId(int winnerId) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
-            String query = "SELECT * FROM public.auction WHERE \"winner\" = ?";
+    public List<Auction> getListByWinnerId(int winnerId, Page page) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            String query = "SELECT * FROM public.auction WHERE \"winner\" = ? AND \"auction\".id > ? " +
+                    "ORDER BY \"auction\".id LIMIT ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, winnerId);
-            ResultSet resultSet = statement.executeQuery();
-
-            List<Auction> auctionList = new LinkedList<>();
-            while (resultSet.next()) {
-                auctionList.add(objectFromResultSet(resultSet));
+            statement.setInt(2, page.after);
+            statement.setInt(3, page.limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Auction> auctionList = new ArrayList<>(page.limit);
+                while (resultSet.next()) {
+                    auctionList.add(objectFromResultSet(resultSet));
+                }
+
+                return auctionList;
             }
-
-            return auctionList;
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Auction update(Auction auction) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
-            String query = "UPDATE public.auction " +
-                    "SET name = ?, starting_price = ?, " +
-                    "start_time = ?, event = ?, " +
-                    "owner = ?, status = ?, winner = ?, ending_time = ?, combinatorial_winners = ?, max_bid = ? " +
-                    "WHERE id = ?";
-
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
-            statement.setString(1, auction.name);
-            statement.setDouble(2, auction.startingPrice);
-            statement.setTimestamp(3, auction.startTime);
-            statement.setInt(4, auction.eventId);
-            statement.setInt(5, auction.ownerId);
-            statement.setString(6, auction.status);
-            if (auction.winnerId == 0) {
-                statement.setNull(7, 0);
-            } else {
-                statement.setInt(7, auction.winnerId);
+        try (Connection connection = Source.getInstance().getConnection()) {
+            PreparedStatement statement = prepare(connection, UPDATE_QUERY);
+            setUpdateParameters(statement, auction);
+            return returnedRow(statement);
+        } catch (NamingException|SQLException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    @Override
+    public Auction settle(Auction auction, Map<Integer, Double> credits) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            Auction settled;
+            connection.setAutoCommit(false);
+            try {
+                // By user id, so that settlements sharing users lock them in the same order.
+                PreparedStatement creditStatement = prepare(connection, CREDIT_QUERY);
+                for (Map.Entry<Integer, Double> credit: new TreeMap<>(credits).entrySet()) {
+                    creditStatement.setDouble(1, credit.getValue());
+                    creditStatement.setInt(2, credit.getKey());
+                    creditStatement.addBatch();
+                }
+                int[] nCredited = creditStatement.executeBatch();
+                for (int n: nCredited) {
+                    if (n == 0) {
+                        throw new SQLException("Settlement of auction " + auction.id + " credits a missing user");
+                    }
+                }
+
+                PreparedStatement auctionStatement = prepare(connection, UPDATE_QUERY);
+                setUpdateParameters(auctionStatement, auction);
+                settled = returnedRow(auctionStatement);
+
+                if (settled != null) {
+                    connection.commit();
+                } else {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
             }
-            statement.setTimestamp(8, auction.endingTime);
-            statement.setString(9, auction.combinatorialWinners);
-            statement.setDouble(10, auction.maxBid);
-            statement.setInt(11, auction.id);
-            statement.executeUpdate();
 
-            return recentlyUpdated(statement);
+            return settled;
+        } catch (NamingException|SQLException e) {
+            throw new DAOException(e);
+        }
+    }
+
+    private static void setUpdateParameters(PreparedStatement statement, Auction auction) throws SQLException {
+        statement.setString(1, auction.name);
+        statement.setDouble(2, auction.startingPrice);
+        statement.setTimestamp(3, auction.startTime);
+        statement.setInt(4, auction.eventId);
+        statement.setInt(5, auction.ownerId);
+        statement.setString(6, auction.status);
+        if (auction.winnerId == 0) {
+            statement.setNull(7, 0);
+        } else {
+            statement.setInt(7, auction.winnerId);
+        }
+        statement.setTimestamp(8, auction.endingTime);
+        statement.setString(9, auction.combinatorialWinners);
+        statement.setDouble(10, auction.maxBid);
+        statement.setInt(11, auction.id);
+    }
+
+    @Override
+    public boolean updateMaxBid(int auctionId, double maxBid) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            String query = "UPDATE public.auction SET max_bid = ? WHERE id = ?";
+
+            PreparedStatement statement = prepare(connection, query);
+            statement.setDouble(1, maxBid);
+            statement.setInt(2, auctionId);
+            int nUpdated = statement.executeUpdate();
+
+            return nUpdated != 0;
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public boolean delete(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "DELETE FROM public.auction WHERE id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
             int nDeleted = statement.executeUpdate();
 
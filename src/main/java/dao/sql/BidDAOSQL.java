@@ -2,6 +2,7 @@ package main.java.dao.sql;
 
 import main.java.dao.BidDAO;
 import main.java.dao.DAOException;
+import main.java.dao.Page;
 import main.java.dao.NotFoundException;
 import main.java.db.Source;
 import main.java.models.*;
@@ -12,6 +13,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -38,58 +40,58 @@ public class BidDAOSQL extends SQLDAOAbstract<Bid> implements BidDAO {
     }
 
     public Bid create(Bid bid) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "INSERT INTO public.bid (amount, auction, owner, good) " +
-                    "VALUES (?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?) " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[]{"id"});
+            PreparedStatement statement = prepare(connection, query);
             statement.setDouble(1, bid.amount);
             statement.setInt(2, bid.auctionId);
             statement.setInt(3, bid.ownerId);
             statement.setInt(4, bid.goodId);
-            statement.executeUpdate();
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException | SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Bid getById(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.bid WHERE \"bid\".id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query);
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
 
-            if (!resultSet.next()) {
-                return null;
+                return objectFromResultSet(resultSet);
             }
-
-            return objectFromResultSet(resultSet);
         } catch (NamingException | SQLException e) {
             throw new DAOException(e);
         }
     }
 
     @Override
-    public List<Bid> getListByOwnerId(int ownerId) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
-            String query = "SELECT * FROM public.bid WHERE \"owner\" = ?";
+    public List<Bid> getListByOwnerId(int ownerId, Page page) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            String query = "SELECT * FROM public.bid WHERE \"owner\" = ? AND \"bid\".id > ? " +
+                    "ORDER BY \"bid\".id LIMIT ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, ownerId);
-            ResultSet resultSet = statement.executeQuery();
-
-            List<Bid> bidList = new LinkedList<>();
-            while (resultSet.next()) {
-                bidList.add(objectFromResultSet(resultSet));
+            statement.setInt(2, page.after);
+            statement.setInt(3, page.limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Bid> bidList = new ArrayList<>(page.limit);
+                while (resultSet.next()) {
+                    bidList.add(objectFromResultSet(resultSet));
+                }
+
+                return bidList;
             }
-
-            return bidList;
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
@@ -97,53 +99,49 @@ public class BidDAOSQL extends SQLDAOAbstract<Bid> implements BidDAO {
 
     @Override
     public List<Bid> getListByAuctionId(int auctionId) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.bid WHERE \"auction\" = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, auctionId);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Bid> bidList = new LinkedList<>();
+                while (resultSet.next()) {
+                    bidList.add(objectFromResultSet(resultSet));
+                }
 
-            List<Bid> bidList = new LinkedList<>();
-            while (resultSet.next()) {
-                bidList.add(objectFromResultSet(resultSet));
+                return bidList;
             }
-
-            return bidList;
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Bid update(Bid bid) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "UPDATE public.bid " +
                     "SET amount = ?, auction = ?, " +
                     "owner = ?, good = ? " +
-                    "WHERE id = ?";
+                    "WHERE id = ? " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[]{"id"});
+            PreparedStatement statement = prepare(connection, query);
             statement.setDouble(1, bid.amount);
             statement.setInt(2, bid.auctionId);
             statement.setInt(3, bid.ownerId);
             statement.setInt(4, bid.goodId);
             statement.setInt(5, bid.id);
-            statement.executeUpdate();
-
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException | SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public boolean delete(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "DELETE FROM public.bid WHERE id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query);
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
             int nDeleted = statement.executeUpdate();
 
@@ -1,6 +1,8 @@
 package main.java.dao.sql;
 
 import main.java.dao.DAOException;
+import main.java.dao.Page;
+import main.java.dao.cache.CachedEventDAO;
 import main.java.dao.EventDAO;
 import main.java.db.Source;
 import main.java.models.Event;
@@ -10,7 +12,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class EventDAOSQL extends SQLDAOAbstract<Event> implements EventDAO {
@@ -33,80 +35,89 @@ public class EventDAOSQL extends SQLDAOAbstract<Event> implements EventDAO {
 
     public static EventDAO getInstance() {
         if (instance == null) {
-            instance = new EventDAOSQL();
+            instance = new CachedEventDAO(new EventDAOSQL());
         }
         return instance;
     }
 
     public Event create(Event event) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "INSERT INTO public.event (name, location, auction_type, category, owner, status) " +
-                    "VALUES (?, ?, ?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?, ?, ?) " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, event.name);
             statement.setString(2, event.location);
             statement.setString(3, event.auctionType);
             statement.setString(4, event.category);
             statement.setInt(5, event.ownerId);
             statement.setString(6, event.status);
-            statement.executeUpdate();
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Event getById(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.event WHERE \"event\".id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
 
-            if (!resultSet.next()) {
-                return null;
+                return objectFromResultSet(resultSet);
             }
-
-            return objectFromResultSet(resultSet);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     @Override
-    public List<Event> getList() throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
-            String query = "SELECT * FROM public.event ORDER BY \"event\".id DESC";
-
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
-            ResultSet resultSet = statement.executeQuery();
-
-            List<Event> eventList = new LinkedList<>();
-            while (resultSet.next()) {
-                eventList.add(objectFromResultSet(resultSet));
+    public List<Event> getList(Page page, String status, String category) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            String query = "SELECT * FROM public.event WHERE \"event\".id < ? " +
+                    (status == null ? "" : "AND \"status\" = ? ") +
+                    (category == null ? "" : "AND \"category\" = ? ") +
+                    "ORDER BY \"event\".id DESC LIMIT ?";
+
+            PreparedStatement statement = prepare(connection, query);
+            int parameter = 1;
+            statement.setInt(parameter++, page.isFirst() ? Integer.MAX_VALUE : page.after);
+            if (status != null) {
+                statement.setString(parameter++, status);
+            }
+            if (category != null) {
+                statement.setString(parameter++, category);
+            }
+            statement.setInt(parameter, page.limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Event> eventList = new ArrayList<>(page.limit);
+                while (resultSet.next()) {
+                    eventList.add(objectFromResultSet(resultSet));
+                }
+
+                return eventList;
             }
-
-            return eventList;
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Event update(Event event) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "UPDATE public.event " +
                     "SET name = ?, " +
                     "location = ?, auction_type = ?, category = ?, " +
                     "owner = ?, status = ? " +
-                    "WHERE id = ?";
+                    "WHERE id = ? " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, event.name);
             statement.setString(2, event.location);
             statement.setString(3, event.auctionType);
@@ -114,20 +125,17 @@ public class EventDAOSQL extends SQLDAOAbstract<Event> implements EventDAO {
             statement.setInt(5, event.ownerId);
             statement.setString(6, event.status);
             statement.setInt(7, event.id);
-            statement.executeUpdate();
-
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public boolean delete(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "DELETE FROM public.event WHERE id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
             int nDeleted = statement.executeUpdate();
 
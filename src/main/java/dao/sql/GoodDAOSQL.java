@@ -2,6 +2,8 @@ package main.java.dao.sql;
 
 import main.java.dao.GoodDAO;
 import main.java.dao.DAOException;
+import main.java.dao.Page;
+import main.java.dao.cache.CachedGoodDAO;
 import main.java.db.Source;
 import main.java.models.Good;
 
@@ -10,6 +12,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -28,42 +31,40 @@ public class GoodDAOSQL extends SQLDAOAbstract<Good> implements GoodDAO {
 
     public static GoodDAO getInstance() {
         if (instance == null) {
-            instance = new GoodDAOSQL();
+            instance = new CachedGoodDAO(new GoodDAOSQL());
         }
         return instance;
     }
 
     public Good create(Good good) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "INSERT INTO public.good (name, image, auction) " +
-                    "VALUES (?, ?, ?)";
+                    "VALUES (?, ?, ?) " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, good.name);
             statement.setBytes(2, good.image.getBytes());
             statement.setInt(3, good.auctionId);
-            statement.executeUpdate();
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException |SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Good getById(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.good WHERE \"good\".id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
 
-            if (!resultSet.next()) {
-                return null;
+                return objectFromResultSet(resultSet);
             }
-
-            return objectFromResultSet(resultSet);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
@@ -71,52 +72,71 @@ public class GoodDAOSQL extends SQLDAOAbstract<Good> implements GoodDAO {
 
     @Override
     public List<Good> getListByAuctionId(int auctionId) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.good WHERE \"auction\" = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, auctionId);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Good> goodList = new LinkedList<>();
+                while (resultSet.next()) {
+                    goodList.add(objectFromResultSet(resultSet));
+                }
 
-            List<Good> goodList = new LinkedList<>();
-            while (resultSet.next()) {
-                goodList.add(objectFromResultSet(resultSet));
+                return goodList;
             }
+        } catch (NamingException|SQLException e) {
+            throw new DAOException(e);
+        }
+    }
 
-            return goodList;
+    @Override
+    public List<Good> getListByAuctionId(int auctionId, Page page) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            String query = "SELECT * FROM public.good WHERE \"auction\" = ? AND \"good\".id > ? " +
+                    "ORDER BY \"good\".id LIMIT ?";
+
+            PreparedStatement statement = prepare(connection, query);
+            statement.setInt(1, auctionId);
+            statement.setInt(2, page.after);
+            statement.setInt(3, page.limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                List<Good> goodList = new ArrayList<>(page.limit);
+                while (resultSet.next()) {
+                    goodList.add(objectFromResultSet(resultSet));
+                }
+
+                return goodList;
+            }
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public Good update(Good good) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "UPDATE public.good " +
                     "SET name = ?, image = ?, " +
                     "auction = ?" +
-                    "WHERE id = ?";
+                    "WHERE id = ? " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, good.name);
             statement.setBytes(2, good.image.getBytes());
             statement.setInt(3, good.auctionId);
             statement.setInt(4,good.id);
-            statement.executeUpdate();
-
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public boolean delete(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "DELETE FROM public.good WHERE id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
             int nDeleted = statement.executeUpdate();
 
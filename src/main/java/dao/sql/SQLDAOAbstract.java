@@ -1,8 +1,10 @@
 package main.java.dao.sql;
 
 import main.java.dao.DAOException;
+import main.java.db.StatementCache;
 import main.java.models.ModelAbstract;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -13,14 +15,25 @@ public abstract class SQLDAOAbstract<T extends ModelAbstract> {
 
     abstract T objectFromResultSet(ResultSet resultSet) throws SQLException;
 
-    T recentlyUpdated(PreparedStatement statement) throws DAOException, SQLException {
-        ResultSet generatedKeys = statement.getGeneratedKeys();
-
-        if (generatedKeys.next()) {
-            int id = generatedKeys.getInt(1);
-            return getById(id);
+    /**
+     * Run a write ending in RETURNING *.
+     * @return the row it wrote, or null if none.
+     */
+    T returnedRow(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                return null;
+            }
+
+            return objectFromResultSet(resultSet);
         }
+    }
 
-        return null;
+    /**
+     * Cached prepared statement for the given query on this connection, see StatementCache.
+     * The statement is owned by the cache: do not close it, close its result sets instead.
+     */
+    PreparedStatement prepare(Connection connection, String query) throws SQLException {
+        return connection.unwrap(StatementCache.class).prepare(query);
     }
 }
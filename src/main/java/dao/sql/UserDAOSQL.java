@@ -1,6 +1,7 @@
 package main.java.dao.sql;
 
 import main.java.dao.DAOException;
+import main.java.dao.cache.CachedUserDAO;
 import main.java.dao.UserDAO;
 import main.java.db.Source;
 import main.java.models.User;
@@ -19,101 +20,111 @@ public class UserDAOSQL extends SQLDAOAbstract<User> implements UserDAO {
     private static final String DB_CREATED_AT = "created_at";
     private static final String DB_UPDATED_AT = "updated_at";
 
-    private static UserDAOSQL instance;
+    private static UserDAO instance;
 
-    public static UserDAOSQL getInstance() {
+    public static UserDAO getInstance() {
         if (instance == null) {
-            instance = new UserDAOSQL();
+            instance = new CachedUserDAO(new UserDAOSQL());
         }
         return instance;
     }
 
     public User create(User user) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "INSERT INTO public.user (name, last_name, password, email, credit) " +
-                    "VALUES (?, ?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?, ?) " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, user.name);
             statement.setString(2, user.lastName);
             statement.setString(3, user.password);
             statement.setString(4, user.email);
             statement.setDouble(5, user.credit);
-            statement.executeUpdate();
-            return recentlyUpdated(statement);
+            return returnedRow(statement);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public User getById(int id) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.user WHERE \"user\".id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, id);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
 
-            if (!resultSet.next()) {
-                return null;
+                return objectFromResultSet(resultSet);
             }
-
-            return objectFromResultSet(resultSet);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public User getByEmail(String email) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "SELECT * FROM public.user WHERE \"user\".email = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, email);
-            ResultSet resultSet = statement.executeQuery();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
 
-            if (!resultSet.next()) {
-                return null;
+                return objectFromResultSet(resultSet);
             }
-
-            return objectFromResultSet(resultSet);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public User update(User user) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "UPDATE public.user " +
                     "SET name = ?, last_name = ?, " +
                     "password = ?, email = ?, credit = ? " +
-                    "WHERE id = ?";
+                    "WHERE id = ? " +
+                    "RETURNING *";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setString(1, user.name);
             statement.setString(2, user.lastName);
             statement.setString(3, user.password);
             statement.setString(4, user.email);
             statement.setDouble(5, user.credit);
             statement.setInt(6, user.id);
-            statement.executeUpdate();
+            return returnedRow(statement);
+        } catch (NamingException|SQLException e) {
+            throw new DAOException(e);
+        }
+    }
 
-            return recentlyUpdated(statement);
+    public User addCredit(int userId, double credit) throws DAOException {
+        try (Connection connection = Source.getInstance().getConnection()) {
+            String query = "UPDATE public.user SET credit = credit + ? " +
+                    "WHERE id = ? AND credit + ? >= 0 " +
+                    "RETURNING *";
+
+            PreparedStatement statement = prepare(connection, query);
+            statement.setDouble(1, credit);
+            statement.setInt(2, userId);
+            statement.setDouble(3, credit);
+            return returnedRow(statement);
         } catch (NamingException|SQLException e) {
             throw new DAOException(e);
         }
     }
 
     public boolean delete(int userId) throws DAOException {
-        try {
-            Connection connection = Source.getInstance().getConnection();
+        try (Connection connection = Source.getInstance().getConnection()) {
             String query = "DELETE FROM public.user WHERE id = ?";
 
-            PreparedStatement statement = connection.prepareStatement(query, new String[] { "id" });
+            PreparedStatement statement = prepare(connection, query);
             statement.setInt(1, userId);
             int nDeleted = statement.executeUpdate();
 
@@ -0,0 +1,232 @@
+package main.java.db;
+
+import main.java.utils.LatencyStats;
+import main.java.utils.Logger;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool.
+ * - Connections are borrowed per unit of work and handed back by calling close() on them.
+ * - Idle connections are validated on borrow and evicted after some time without use.
+ * - Connections kept for too long are reported as leaks.
+ */
+public class ConnectionPool {
+
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 5 * 1000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    public static final long DEFAULT_LEAK_THRESHOLD_MILLIS = 60 * 1000;
+
+    private static final long VALIDATION_BYPASS_MILLIS = 500; // Recently used connections are trusted as valid.
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_PERIOD_MILLIS = 30 * 1000;
+
+    private final DataSource dataSource;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> leased = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<PooledConnection> owned = new ThreadLocal<>();
+    private final ScheduledExecutorService housekeeper;
+
+    private final LatencyStats waitStats = new LatencyStats();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(DataSource dataSource) {
+        this(dataSource, DEFAULT_MAX_SIZE, DEFAULT_BORROW_TIMEOUT_MILLIS, DEFAULT_IDLE_TIMEOUT_MILLIS,
+                DEFAULT_LEAK_THRESHOLD_MILLIS);
+    }
+
+    public ConnectionPool(DataSource dataSource, int maxSize, long borrowTimeoutMillis, long idleTimeoutMillis,
+                          long leakThresholdMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize: " + maxSize);
+        }
+        this.dataSource = dataSource;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeeping,
+                HOUSEKEEPING_PERIOD_MILLIS, HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the borrow timeout if all of them are in use.
+     * The connection must be closed once done with it, so that it goes back to the pool.
+     * A thread that already holds a connection gets that same one back, so nested DAO calls
+     * never wait on themselves and share its transaction.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+
+        PooledConnection current = owned.get();
+        if (current != null) {
+            Connection connection = current.retain();
+            if (connection != null) {
+                return connection;
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + "ms waiting for a DB connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a DB connection.", e);
+        }
+        waitStats.record(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(this, dataSource.getConnection());
+                created.increment();
+            }
+            Connection connection = pooled.lease();
+            leased.add(pooled);
+            owned.set(pooled);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            boolean recentlyUsed = System.currentTimeMillis() - pooled.getReturnedAt() < VALIDATION_BYPASS_MILLIS;
+            if (recentlyUsed || pooled.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    void giveBack(PooledConnection pooled) {
+        if (!leased.remove(pooled)) {
+            return;
+        }
+        if (owned.get() == pooled) {
+            owned.remove();
+        }
+        if (!closed && pooled.release()) {
+            // LIFO: the most recently used connections stay hot, the others age and get evicted.
+            idle.offerFirst(pooled);
+        } else {
+            discard(pooled);
+        }
+        permits.release();
+    }
+
+    private void discard(PooledConnection pooled) {
+        evicted.increment();
+        pooled.closePhysical();
+    }
+
+    void housekeeping() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> idleIterator = idle.descendingIterator();
+        while (idleIterator.hasNext()) {
+            PooledConnection pooled = idleIterator.next();
+            if (now - pooled.getReturnedAt() > idleTimeoutMillis && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+
+        if (leakThresholdMillis <= 0) {
+            return;
+        }
+        for (PooledConnection pooled: leased) {
+            long heldFor = now - pooled.getLeasedAt();
+            if (pooled.isLeased() && heldFor > leakThresholdMillis && pooled.markLeakReported()) {
+                leaks.increment();
+                Logger.error("Possible connection leak",
+                        "Borrowed by thread " + pooled.getBorrower() + " " + heldFor + "ms ago");
+            }
+        }
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /* Metrics */
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getLeasedCount() {
+        return leased.size();
+    }
+
+    public int getThreadsWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public LatencyStats getWaitStats() {
+        return waitStats;
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    public long getLeakCount() {
+        return leaks.sum();
+    }
+}
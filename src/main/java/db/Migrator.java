@@ -0,0 +1,223 @@
+package main.java.db;
+
+import main.java.utils.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned schema migrations, i.e. db/v1.0.sql, db/v1.1.sql...
+ * - Applied versions are recorded in schema_version along with the checksum of their file. Only pending ones run.
+ * - A migration changed after it was applied is an error: it would never run again as it is now.
+ * - Each migration runs in a transaction of its own, together with its record: it is applied whole or not at all.
+ * - Migrations are run as a whole script, so statements, comments and function bodies are left to Postgres to parse.
+ */
+public class Migrator {
+
+    public static final String VERSION_TABLE = "schema_version";
+
+    private static final Pattern FILE_NAME = Pattern.compile("v(\\d+(?:\\.\\d+)*)\\.sql");
+
+    private final Connection connection;
+    private final String versionTable;
+
+    public Migrator(Connection connection) {
+        this(connection, "public");
+    }
+
+    /**
+     * @param schema where to keep schema_version.
+     */
+    public Migrator(Connection connection, String schema) {
+        this.connection = connection;
+        this.versionTable = schema + "." + VERSION_TABLE;
+    }
+
+    /**
+     * Run the migrations of the directory that were not applied yet, in version order.
+     * @return versions applied now.
+     * @throws SQLException if a migration fails (it is rolled back, later ones do not run), or if an applied one
+     * has changed since.
+     */
+    public List<String> migrate(File directory) throws SQLException, IOException {
+        createVersionTable();
+
+        List<String> migrated = new ArrayList<>();
+        Map<String, String> applied = getApplied();
+        for (Migration migration: scan(directory)) {
+            if (applied.containsKey(migration.version)) {
+                checkUnchanged(migration, applied.get(migration.version));
+                continue;
+            }
+            if (apply(migration)) {
+                migrated.add(migration.version);
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * Record the migrations up to the version (included) as applied, without running them. For databases set up by
+     * hand before there was a schema_version.
+     * @return versions recorded now.
+     */
+    public List<String> baseline(File directory, String version) throws SQLException, IOException {
+        createVersionTable();
+
+        List<String> recorded = new ArrayList<>();
+        Map<String, String> applied = getApplied();
+        for (Migration migration: scan(directory)) {
+            if (compareVersions(migration.version, version) > 0) {
+                break;
+            }
+            if (!applied.containsKey(migration.version)) {
+                record(migration);
+                recorded.add(migration.version);
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * @return versions applied so far <-> Checksum of their file back then.
+     */
+    public Map<String, String> getApplied() throws SQLException {
+        Map<String, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM " + versionTable)) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getString(1), resultSet.getString(2));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * @return migrations of the directory, in version order.
+     */
+    public static List<Migration> scan(File directory) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("No migrations directory " + directory);
+        }
+
+        List<Migration> migrations = new ArrayList<>();
+        for (File file: files) {
+            Matcher matcher = FILE_NAME.matcher(file.getName());
+            if (file.isFile() && matcher.matches()) {
+                String sql = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+                migrations.add(new Migration(matcher.group(1), sql));
+            }
+        }
+        migrations.sort((a, b) -> compareVersions(a.version, b.version));
+        return migrations;
+    }
+
+    /**
+     * Numeric, part by part: 1.10 comes after 1.9.
+     */
+    static int compareVersions(String a, String b) {
+        String[] aParts = a.split("\\.");
+        String[] bParts = b.split("\\.");
+        for (int i = 0; i < Math.max(aParts.length, bParts.length); i++) {
+            int aPart = i < aParts.length ? Integer.parseInt(aParts[i]) : 0;
+            int bPart = i < bParts.length ? Integer.parseInt(bParts[i]) : 0;
+            if (aPart != bPart) {
+                return Integer.compare(aPart, bPart);
+            }
+        }
+        return 0;
+    }
+
+    private void createVersionTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + versionTable + " (" +
+                    "version VARCHAR(50) NOT NULL PRIMARY KEY, " +
+                    "checksum CHAR(64) NOT NULL, " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL)");
+        }
+    }
+
+    /**
+     * @return false if someone else applied it in the meantime.
+     */
+    private boolean apply(Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                // Migrators starting together take turns. Whoever comes second finds it applied.
+                statement.execute("LOCK TABLE " + versionTable + " IN EXCLUSIVE MODE");
+            }
+            if (getApplied().containsKey(migration.version)) {
+                connection.rollback();
+                return false;
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(migration.sql);
+            }
+            record(migration);
+            connection.commit();
+            Logger.info("Migration applied", "v" + migration.version);
+            return true;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration v" + migration.version + " failed", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void record(Migration migration) throws SQLException {
+        String query = "INSERT INTO " + versionTable + " (version, checksum) VALUES (?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, migration.version);
+            statement.setString(2, migration.checksum);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void checkUnchanged(Migration migration, String checksum) throws SQLException {
+        if (!migration.checksum.equals(checksum.trim())) {
+            throw new SQLException("Migration v" + migration.version + " changed after it was applied");
+        }
+    }
+
+    public static class Migration {
+
+        public final String version;
+        public final String sql;
+        public final String checksum; // SHA-256 of the SQL, whatever the line endings of the checkout.
+
+        Migration(String version, String sql) {
+            this.version = version;
+            this.sql = sql;
+            this.checksum = sha256(sql.replace("\r\n", "\n"));
+        }
+
+        private static String sha256(String text) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+                StringBuilder hex = new StringBuilder();
+                for (byte b: digest) {
+                    hex.append(String.format("%02x", b));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // Every JVM has SHA-256.
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package main.java.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Physical connection owned by a ConnectionPool.
+ * - Borrowers only get to see a proxy of it, whose close() hands the connection back to the pool.
+ * - Every borrow gets a proxy of its own, bound to the lease it was borrowed in. Once closed, or once the lease is
+ * over, closing it again is a no-op and using it throws: a late borrower can not touch the next one's session.
+ * - While leased, further borrows from the owner thread share it instead of taking another one.
+ * - Its prepared statements outlive the leases (see StatementCache), they are closed together with it.
+ */
+class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statements;
+
+    private long lease; // Bumped by every lease. Guarded by this.
+    private volatile boolean leased;
+    private volatile boolean leakReported;
+    private volatile long leasedAt;
+    private volatile long returnedAt;
+    private volatile Thread owner;
+    private int holds; // Nested borrows by the owner thread. Guarded by this.
+    private boolean dirtyAutoCommit;
+
+    PooledConnection(ConnectionPool pool, Connection physical) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statements = new StatementCache(physical);
+        this.returnedAt = System.currentTimeMillis();
+    }
+
+    Connection physical() {
+        return physical;
+    }
+
+    /**
+     * @return the borrower's proxy.
+     */
+    synchronized Connection lease() {
+        lease++;
+        leased = true;
+        leakReported = false;
+        leasedAt = System.currentTimeMillis();
+        owner = Thread.currentThread();
+        holds = 1;
+        return borrowed();
+    }
+
+    /**
+     * Nested borrow by the same thread: it gets the connection it already holds.
+     * @return the borrower's proxy, or null if the thread does not hold the connection.
+     */
+    synchronized Connection retain() {
+        if (!leased || owner != Thread.currentThread()) {
+            return null;
+        }
+        holds++;
+        return borrowed();
+    }
+
+    private Connection borrowed() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Borrowed(lease));
+    }
+
+    /**
+     * Restore the connection to its pristine state before handing it to somebody else.
+     * @return false if the connection can not be reused anymore.
+     */
+    synchronized boolean release() {
+        leased = false;
+        owner = null;
+        returnedAt = System.currentTimeMillis();
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (dirtyAutoCommit) {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                dirtyAutoCommit = false;
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    boolean isValid(int timeoutSeconds) {
+        try {
+            return physical.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        statements.close();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            // Nothing else to do, it is being discarded anyway.
+        }
+    }
+
+    boolean isLeased() {
+        return leased;
+    }
+
+    long getLeasedAt() {
+        return leasedAt;
+    }
+
+    long getReturnedAt() {
+        return returnedAt;
+    }
+
+    String getBorrower() {
+        Thread thread = owner;
+        return thread == null ? "-" : thread.getName();
+    }
+
+    boolean markLeakReported() {
+        if (leakReported) {
+            return false;
+        }
+        leakReported = true;
+        return true;
+    }
+
+    /**
+     * @return true if that was the last hold of the lease: the connection has to go back to the pool.
+     */
+    private synchronized boolean close(Borrowed borrowed) {
+        if (!isCurrent(borrowed)) {
+            return false; // Closed already, or late: the connection might be somebody else's by now.
+        }
+        borrowed.closed = true;
+        return --holds == 0;
+    }
+
+    private synchronized boolean isCurrent(Borrowed borrowed) {
+        return !borrowed.closed && leased && borrowed.lease == lease;
+    }
+
+    /**
+     * Proxy handed to a borrower.
+     */
+    private class Borrowed implements InvocationHandler {
+
+        private final long lease;
+        private boolean closed; // Guarded by the PooledConnection.
+
+        Borrowed(long lease) {
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (close(this)) {
+                        pool.giveBack(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return !isCurrent(this) || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection{" + physical + "}";
+            }
+
+            if (!isCurrent(this)) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            switch (method.getName()) {
+                case "unwrap":
+                    if (args[0] == StatementCache.class) {
+                        return statements;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (args[0] == StatementCache.class) {
+                        return true;
+                    }
+                    break;
+                case "setAutoCommit":
+                    dirtyAutoCommit = true;
+                    break;
+            }
+
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -3,20 +3,24 @@ package main.java.db;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
 
 /**
  * Source singleton.
- * - DB connection.
+ * - DB connections, borrowed from a pool. Close them once done so they go back to the pool.
  */
 public class Source {
     private static Source instance;
 
     private DataSource dataSource;
+    private ConnectionPool pool;
     private Connection connection;
+    private StatementCache connectionStatements;
 
-    public static Source getInstance() {
+    public static synchronized Source getInstance() {
         if (instance == null) {
             instance = new Source();
         }
@@ -32,15 +36,59 @@ public class Source {
         return dataSource;
     }
 
+    public synchronized ConnectionPool getPool() throws NamingException {
+        if (pool == null) {
+            pool = new ConnectionPool(getDataSource());
+        }
+        return pool;
+    }
+
     public Connection getConnection() throws NamingException, SQLException {
-        if (connection == null) {
-            connection = getDataSource().getConnection();
+        Connection fixedConnection = connection;
+        if (fixedConnection != null) {
+            return fixedConnection;
         }
-        return connection;
+        return getPool().borrow();
     }
 
     // For DB integration tests
-    public void setConnection(Connection connection) {
-        this.connection = connection;
+    public synchronized void setConnection(Connection connection) {
+        if (connectionStatements != null) {
+            connectionStatements.close();
+        }
+        connectionStatements = connection == null ? null : new StatementCache(connection);
+        this.connection = connection == null ? null : unclosable(connection, connectionStatements);
+    }
+
+    /**
+     * A fixed connection is shared by everyone, so closing it after each use is a no-op.
+     */
+    private static Connection unclosable(Connection connection, StatementCache statements) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "unwrap":
+                            if (args[0] == StatementCache.class) {
+                                return statements;
+                            }
+                            break;
+                        case "isWrapperFor":
+                            if (args[0] == StatementCache.class) {
+                                return true;
+                            }
+                            break;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
     }
 }
@@ -0,0 +1,80 @@
+package main.java.db;
+
+import org.postgresql.PGStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepared statements of a physical connection, by SQL, reused by everyone who borrows it.
+ * - Reach it with connection.unwrap(StatementCache.class), on connections from the Source.
+ * - The statements are owned by the cache: do not close them, close their result sets instead.
+ * - Bounded: past MAX_SIZE statements, the least recently used one is closed.
+ * - Closed together with its connection, which statements keep alive otherwise.
+ */
+public class StatementCache {
+
+    static final int MAX_SIZE = 64; // Beyond the ~30 queries of all the DAOs.
+
+    private final Connection connection;
+
+    private final Map<String, PreparedStatement> statements; // SQL <-> Statement. Guarded by this.
+
+    StatementCache(Connection connection) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= MAX_SIZE) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Cached prepared statement for the given query.
+     */
+    public synchronized PreparedStatement prepare(String query) throws SQLException {
+        PreparedStatement statement = statements.get(query);
+        if (statement != null && !statement.isClosed()) {
+            return statement;
+        }
+
+        statement = connection.prepareStatement(query);
+        if (statement.isWrapperFor(PGStatement.class)) {
+            // Server-side prepare straight away, the statement is going to be reused anyway.
+            statement.unwrap(PGStatement.class).setPrepareThreshold(1);
+        }
+        statements.put(query, statement);
+        return statement;
+    }
+
+    public synchronized int size() {
+        return statements.size();
+    }
+
+    /**
+     * Close every statement, i.e. before the connection itself is closed.
+     */
+    synchronized void close() {
+        for (Iterator<PreparedStatement> iterator = statements.values().iterator(); iterator.hasNext(); ) {
+            closeQuietly(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // Going away anyway.
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package main.java.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.java.models.Auction;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+class AuctionTypeAdapter extends ModelTypeAdapter<Auction> {
+
+    AuctionTypeAdapter(TypeAdapter<Timestamp> timestampAdapter) {
+        super(timestampAdapter);
+    }
+
+    @Override
+    Auction newModel() {
+        return new Auction();
+    }
+
+    @Override
+    void writeFields(JsonWriter out, Auction auction) throws IOException {
+        writeString(out, "name", auction.name);
+        writeDouble(out, "startingPrice", auction.startingPrice);
+        writeTimestamp(out, "startTime", auction.startTime);
+        writeTimestamp(out, "endingTime", auction.endingTime);
+        writeInt(out, "eventId", auction.eventId);
+        writeInt(out, "ownerId", auction.ownerId);
+        writeString(out, "status", auction.status);
+        writeInt(out, "winnerId", auction.winnerId);
+        writeString(out, "combinatorialWinners", auction.combinatorialWinners);
+        writeDouble(out, "maxBid", auction.maxBid);
+        writeInt(out, "id", auction.id);
+    }
+
+    @Override
+    boolean readField(JsonReader in, String name, Auction auction) throws IOException {
+        switch (name) {
+            case "name": auction.name = readString(in); return true;
+            case "startingPrice": auction.startingPrice = readDouble(in, auction.startingPrice); return true;
+            case "startTime": auction.startTime = readTimestamp(in); return true;
+            case "endingTime": auction.endingTime = readTimestamp(in); return true;
+            case "eventId": auction.eventId = readInt(in, auction.eventId); return true;
+            case "ownerId": auction.ownerId = readInt(in, auction.ownerId); return true;
+            case "status": auction.status = readString(in); return true;
+            case "winnerId": auction.winnerId = readInt(in, auction.winnerId); return true;
+            case "combinatorialWinners": auction.combinatorialWinners = readString(in); return true;
+            case "maxBid": auction.maxBid = readDouble(in, auction.maxBid); return true;
+            case "id": auction.id = readInt(in, auction.id); return true;
+            default: return false;
+        }
+    }
+}
@@ -7,7 +7,16 @@ import java.util.Date;
 
 public class BetterGson {
 
+    // Gson is thread-safe, and it caches the adapters it builds. So there is only one.
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Date.class, new GsonUTCDateAdapter())
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .create();
+
+    /**
+     * @return The shared Gson instance. Despite the name, no new instance is built on each call.
+     */
     public Gson newInstance() {
-        return new GsonBuilder().registerTypeAdapter(Date.class, new GsonUTCDateAdapter()).create();
+        return gson;
     }
 }
@@ -0,0 +1,44 @@
+package main.java.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.java.models.Bid;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+class BidTypeAdapter extends ModelTypeAdapter<Bid> {
+
+    BidTypeAdapter(TypeAdapter<Timestamp> timestampAdapter) {
+        super(timestampAdapter);
+    }
+
+    @Override
+    Bid newModel() {
+        return new Bid();
+    }
+
+    @Override
+    void writeFields(JsonWriter out, Bid bid) throws IOException {
+        writeDouble(out, "amount", bid.amount);
+        writeTimestamp(out, "createdAt", bid.createdAt);
+        writeInt(out, "auctionId", bid.auctionId);
+        writeInt(out, "goodId", bid.goodId);
+        writeInt(out, "ownerId", bid.ownerId);
+        writeInt(out, "id", bid.id);
+    }
+
+    @Override
+    boolean readField(JsonReader in, String name, Bid bid) throws IOException {
+        switch (name) {
+            case "amount": bid.amount = readDouble(in, bid.amount); return true;
+            case "createdAt": bid.createdAt = readTimestamp(in); return true;
+            case "auctionId": bid.auctionId = readInt(in, bid.auctionId); return true;
+            case "goodId": bid.goodId = readInt(in, bid.goodId); return true;
+            case "ownerId": bid.ownerId = readInt(in, bid.ownerId); return true;
+            case "id": bid.id = readInt(in, bid.id); return true;
+            default: return false;
+        }
+    }
+}
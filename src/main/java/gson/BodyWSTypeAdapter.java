@@ -0,0 +1,40 @@
+package main.java.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.java.models.meta.BodyWS;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+class BodyWSTypeAdapter extends ModelTypeAdapter<BodyWS> {
+
+    BodyWSTypeAdapter(TypeAdapter<Timestamp> timestampAdapter) {
+        super(timestampAdapter);
+    }
+
+    @Override
+    BodyWS newModel() {
+        return new BodyWS();
+    }
+
+    @Override
+    void writeFields(JsonWriter out, BodyWS body) throws IOException {
+        writeString(out, "type", body.type);
+        writeString(out, "nonce", body.nonce);
+        writeInt(out, "status", body.status);
+        writeString(out, "json", body.json);
+    }
+
+    @Override
+    boolean readField(JsonReader in, String name, BodyWS body) throws IOException {
+        switch (name) {
+            case "type": body.type = readString(in); return true;
+            case "nonce": body.nonce = readString(in); return true;
+            case "status": body.status = readInt(in, body.status); return true;
+            case "json": body.json = readString(in); return true;
+            default: return false;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package main.java.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.java.models.Event;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+class EventTypeAdapter extends ModelTypeAdapter<Event> {
+
+    EventTypeAdapter(TypeAdapter<Timestamp> timestampAdapter) {
+        super(timestampAdapter);
+    }
+
+    @Override
+    Event newModel() {
+        return new Event();
+    }
+
+    @Override
+    void writeFields(JsonWriter out, Event event) throws IOException {
+        writeString(out, "name", event.name);
+        writeString(out, "location", event.location);
+        writeTimestamp(out, "createdAt", event.createdAt);
+        writeTimestamp(out, "updatedAt", event.updatedAt);
+        writeString(out, "auctionType", event.auctionType);
+        writeString(out, "category", event.category);
+        writeInt(out, "ownerId", event.ownerId);
+        writeString(out, "status", event.status);
+        writeInt(out, "id", event.id);
+    }
+
+    @Override
+    boolean readField(JsonReader in, String name, Event event) throws IOException {
+        switch (name) {
+            case "name": event.name = readString(in); return true;
+            case "location": event.location = readString(in); return true;
+            case "createdAt": event.createdAt = readTimestamp(in); return true;
+            case "updatedAt": event.updatedAt = readTimestamp(in); return true;
+            case "auctionType": event.auctionType = readString(in); return true;
+            case "category": event.category = readString(in); return true;
+            case "ownerId": event.ownerId = readInt(in, event.ownerId); return true;
+            case "status": event.status = readString(in); return true;
+            case "id": event.id = readInt(in, event.id); return true;
+            default: return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package main.java.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.java.models.Good;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+class GoodTypeAdapter extends ModelTypeAdapter<Good> {
+
+    GoodTypeAdapter(TypeAdapter<Timestamp> timestampAdapter) {
+        super(timestampAdapter);
+    }
+
+    @Override
+    Good newModel() {
+        return new Good();
+    }
+
+    @Override
+    void writeFields(JsonWriter out, Good good) throws IOException {
+        writeString(out, "name", good.name);
+        writeString(out, "image", good.image);
+        writeInt(out, "auctionId", good.auctionId);
+        writeInt(out, "id", good.id);
+    }
+
+    @Override
+    boolean readField(JsonReader in, String name, Good good) throws IOException {
+        switch (name) {
+            case "name": good.name = readString(in); return true;
+            case "image": good.image = readString(in); return true;
+            case "auctionId": good.auctionId = readInt(in, good.auctionId); return true;
+            case "id": good.id = readInt(in, good.id); return true;
+            default: return false;
+        }
+    }
+}
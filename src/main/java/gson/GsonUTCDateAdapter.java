@@ -1,34 +1,40 @@
 package main.java.gson;
 
-import com.google.gson.*;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
-import java.text.DateFormat;
+import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Locale;
-import java.util.TimeZone;
 
 /**
- * https://stackoverflow.com/a/26046107
+ * Dates as ISO-8601 UTC strings. Safe to be shared by any number of threads.
+ * @see UTCDateCodec
  */
-public class GsonUTCDateAdapter implements JsonSerializer<Date>,JsonDeserializer<Date> {
+public class GsonUTCDateAdapter extends TypeAdapter<Date> {
 
-    private final DateFormat dateFormat;
-
-    public GsonUTCDateAdapter() {
-        dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
-        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
-
-    @Override public synchronized JsonElement serialize(Date date,Type type,JsonSerializationContext jsonSerializationContext) {
-        return new JsonPrimitive(dateFormat.format(date));
+    @Override
+    public void write(JsonWriter out, Date date) throws IOException {
+        if (date == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(UTCDateCodec.format(date));
     }
 
-    @Override public synchronized Date deserialize(JsonElement jsonElement, Type type, JsonDeserializationContext jsonDeserializationContext) {
+    @Override
+    public Date read(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String text = token == JsonToken.BOOLEAN ? Boolean.toString(in.nextBoolean()) : in.nextString();
         try {
-            return dateFormat.parse(jsonElement.getAsString());
+            return UTCDateCodec.parse(text);
         } catch (ParseException e) {
             throw new JsonParseException(e);
         }
@@ -0,0 +1,132 @@
+package main.java.gson;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+/**
+ * Streaming adapter of a flat model, written by hand instead of going through reflection.
+ * Output is the same as the reflective one: field names as declared, subclass fields first, nulls skipped.
+ * Input is as lenient as the reflective one: unknown fields are skipped, numbers might be quoted and nulls
+ * leave primitive fields untouched.
+ */
+abstract class ModelTypeAdapter<T> extends TypeAdapter<T> {
+
+    private final TypeAdapter<Timestamp> timestampAdapter;
+
+    ModelTypeAdapter(TypeAdapter<Timestamp> timestampAdapter) {
+        this.timestampAdapter = timestampAdapter;
+    }
+
+    abstract T newModel();
+
+    abstract void writeFields(JsonWriter out, T model) throws IOException;
+
+    /**
+     * @return false if the field is unknown.
+     */
+    abstract boolean readField(JsonReader in, String name, T model) throws IOException;
+
+    @Override
+    public final void write(JsonWriter out, T model) throws IOException {
+        if (model == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        writeFields(out, model);
+        out.endObject();
+    }
+
+    @Override
+    public final T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        T model = newModel();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!readField(in, in.nextName(), model)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return model;
+    }
+
+    /* Write */
+
+    static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+
+    static void writeInt(JsonWriter out, String name, int value) throws IOException {
+        out.name(name).value(value);
+    }
+
+    static void writeDouble(JsonWriter out, String name, double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a valid double value as per JSON specification.");
+        }
+        out.name(name).value(value);
+    }
+
+    void writeTimestamp(JsonWriter out, String name, Timestamp value) throws IOException {
+        if (value != null) {
+            out.name(name);
+            timestampAdapter.write(out, value);
+        }
+    }
+
+    /* Read */
+
+    static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * @return The value read, or the current one if it is null.
+     */
+    static int readInt(JsonReader in, int current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * @return The value read, or the current one if it is null.
+     */
+    static double readDouble(JsonReader in, double current) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return current;
+        }
+        return in.nextDouble();
+    }
+
+    Timestamp readTimestamp(JsonReader in) throws IOException {
+        return timestampAdapter.read(in);
+    }
+}
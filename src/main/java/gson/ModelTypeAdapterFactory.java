@@ -0,0 +1,50 @@
+package main.java.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import main.java.models.Auction;
+import main.java.models.Bid;
+import main.java.models.Event;
+import main.java.models.Good;
+import main.java.models.User;
+import main.java.models.meta.BodyWS;
+
+import java.sql.Timestamp;
+
+/**
+ * Hand-written adapters of the models sent over the wire the most. Anything else goes through reflection.
+ * Timestamps are delegated to whichever Date adapter the Gson instance has.
+ */
+class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == Bid.class) {
+            return (TypeAdapter<T>) new BidTypeAdapter(timestampAdapter(gson));
+        }
+        if (rawType == Auction.class) {
+            return (TypeAdapter<T>) new AuctionTypeAdapter(timestampAdapter(gson));
+        }
+        if (rawType == User.class) {
+            return (TypeAdapter<T>) new UserTypeAdapter(timestampAdapter(gson));
+        }
+        if (rawType == Event.class) {
+            return (TypeAdapter<T>) new EventTypeAdapter(timestampAdapter(gson));
+        }
+        if (rawType == Good.class) {
+            return (TypeAdapter<T>) new GoodTypeAdapter(timestampAdapter(gson));
+        }
+        if (rawType == BodyWS.class) {
+            return (TypeAdapter<T>) new BodyWSTypeAdapter(timestampAdapter(gson));
+        }
+        return null;
+    }
+
+    private static TypeAdapter<Timestamp> timestampAdapter(Gson gson) {
+        return gson.getAdapter(Timestamp.class);
+    }
+}
@@ -0,0 +1,157 @@
+package main.java.gson;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * ISO-8601 UTC dates with millisecond precision: yyyy-MM-dd'T'HH:mm:ss.SSS'Z'.
+ * - Stateless, so it is shared by all threads without locking.
+ * - Dates are formatted and parsed by hand. Anything outside of the fixed layout (or before the Gregorian
+ * calendar, or beyond year 9999) falls back to a per-thread SimpleDateFormat, so results never differ
+ * from what SimpleDateFormat would give.
+ */
+public final class UTCDateCodec {
+
+    public static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+
+    private static final int LENGTH = 24;
+    private static final int MIN_YEAR = 1583; // First full year of the Gregorian calendar.
+    private static final int MAX_YEAR = 9999;
+
+    private static final long MILLIS_PER_SECOND = 1000;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * MILLIS_PER_SECOND;
+
+    private static final ThreadLocal<DateFormat> fallback = ThreadLocal.withInitial(() -> {
+        DateFormat dateFormat = new SimpleDateFormat(PATTERN, Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat;
+    });
+
+    private UTCDateCodec() {
+
+    }
+
+    public static String format(Date date) {
+        return format(date.getTime());
+    }
+
+    public static String format(long epochMillis) {
+        long epochDay = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(epochMillis, MILLIS_PER_DAY);
+
+        // Civil date from days since 1970-01-01, http://howardhinnant.github.io/date_algorithms.html
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < MIN_YEAR || year > MAX_YEAR) {
+            return fallback.get().format(new Date(epochMillis));
+        }
+
+        int millis = (int) (millisOfDay % MILLIS_PER_SECOND);
+        int secondOfDay = (int) (millisOfDay / MILLIS_PER_SECOND);
+
+        char[] chars = new char[LENGTH];
+        putDigits(chars, 0, (int) year, 4);
+        chars[4] = '-';
+        putDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        putDigits(chars, 8, day, 2);
+        chars[10] = 'T';
+        putDigits(chars, 11, secondOfDay / 3600, 2);
+        chars[13] = ':';
+        putDigits(chars, 14, secondOfDay / 60 % 60, 2);
+        chars[16] = ':';
+        putDigits(chars, 17, secondOfDay % 60, 2);
+        chars[19] = '.';
+        putDigits(chars, 20, millis, 3);
+        chars[23] = 'Z';
+        return new String(chars);
+    }
+
+    public static Date parse(String text) throws ParseException {
+        long epochMillis = parseCanonical(text);
+        if (epochMillis != Long.MIN_VALUE) {
+            return new Date(epochMillis);
+        }
+        return fallback.get().parse(text);
+    }
+
+    /**
+     * @return Long.MIN_VALUE if the text is not exactly in the fixed layout, with valid values.
+     */
+    private static long parseCanonical(String text) {
+        if (text.length() != LENGTH
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(19) != '.'
+                || text.charAt(23) != 'Z') {
+            return Long.MIN_VALUE;
+        }
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        int millis = digits(text, 20, 3);
+        if (year < MIN_YEAR || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || millis < 0) {
+            return Long.MIN_VALUE;
+        }
+
+        // Days since 1970-01-01 from civil date, http://howardhinnant.github.io/date_algorithms.html
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = era * 146097 + dayOfEra - 719468;
+
+        return epochDay * MILLIS_PER_DAY + ((hour * 60L + minute) * 60 + second) * MILLIS_PER_SECOND + millis;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * @return -1 if any of the chars is not a digit.
+     */
+    private static int digits(String text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void putDigits(char[] chars, int from, int value, int count) {
+        for (int i = from + count - 1; i >= from; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package main.java.gson;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import main.java.models.User;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+class UserTypeAdapter extends ModelTypeAdapter<User> {
+
+    UserTypeAdapter(TypeAdapter<Timestamp> timestampAdapter) {
+        super(timestampAdapter);
+    }
+
+    @Override
+    User newModel() {
+        return new User();
+    }
+
+    @Override
+    void writeFields(JsonWriter out, User user) throws IOException {
+        writeString(out, "name", user.name);
+        writeString(out, "lastName", user.lastName);
+        writeString(out, "password", user.password);
+        writeString(out, "email", user.email);
+        writeDouble(out, "credit", user.credit);
+        writeTimestamp(out, "createdAt", user.createdAt);
+        writeTimestamp(out, "updatedAt", user.updatedAt);
+        writeInt(out, "id", user.id);
+    }
+
+    @Override
+    boolean readField(JsonReader in, String name, User user) throws IOException {
+        switch (name) {
+            case "name": user.name = readString(in); return true;
+            case "lastName": user.lastName = readString(in); return true;
+            case "password": user.password = readString(in); return true;
+            case "email": user.email = readString(in); return true;
+            case "credit": user.credit = readDouble(in, user.credit); return true;
+            case "createdAt": user.createdAt = readTimestamp(in); return true;
+            case "updatedAt": user.updatedAt = readTimestamp(in); return true;
+            case "id": user.id = readInt(in, user.id); return true;
+            default: return false;
+        }
+    }
+}
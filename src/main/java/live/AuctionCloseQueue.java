@@ -0,0 +1,115 @@
+package main.java.live;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Auction closes (winner determination and settlement) run here, off the WebSocket threads.
+ * - Closes of different auctions run in parallel, on a pool of their own.
+ * - Bounded: past MAX_PENDING closes running or waiting, new ones are refused.
+ * - One close per auction at a time: a second one is refused until the first is done.
+ * - Every close goes through QUEUED, SOLVING, SETTLING and DONE. Each change is told to its listener.
+ */
+public class AuctionCloseQueue {
+
+    public enum State { QUEUED, SOLVING, SETTLING, DONE }
+
+    private static final int CLOSE_THREADS = 4;
+    private static final int MAX_PENDING = 64;
+
+    private static AuctionCloseQueue instance;
+
+    private final Executor pool;
+    private final int maxPending;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Map<Integer, Job> jobs = new ConcurrentHashMap<>(); // Auction id <-> Close
+
+    public AuctionCloseQueue(Executor pool, int maxPending) {
+        this.pool = pool;
+        this.maxPending = maxPending;
+    }
+
+    public static synchronized AuctionCloseQueue getInstance() {
+        if (instance == null) {
+            instance = new AuctionCloseQueue(Executors.newFixedThreadPool(CLOSE_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "auction-closer");
+                thread.setDaemon(true);
+                return thread;
+            }), MAX_PENDING);
+        }
+        return instance;
+    }
+
+    /**
+     * Queue the close of the auction. The listener is told QUEUED before this returns, unless refused.
+     * DONE is told once the close returns, whatever the outcome.
+     * @return false if the auction is being closed already, or too many closes are pending.
+     */
+    public boolean submit(int auctionId, Consumer<State> listener, Runnable close) {
+        Job job = new Job(listener);
+        if (jobs.putIfAbsent(auctionId, job) != null) {
+            return false;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            jobs.remove(auctionId, job);
+            return false;
+        }
+
+        listener.accept(State.QUEUED);
+        pool.execute(() -> {
+            try {
+                close.run();
+            } finally {
+                jobs.remove(auctionId, job);
+                pending.decrementAndGet();
+                job.setState(State.DONE);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Move the close of the auction on. To be called from the close itself.
+     */
+    public void setState(int auctionId, State state) {
+        Job job = jobs.get(auctionId);
+        if (job != null) {
+            job.setState(state);
+        }
+    }
+
+    /**
+     * @return State of the close of the auction, or null if it is not being closed.
+     */
+    public State getState(int auctionId) {
+        Job job = jobs.get(auctionId);
+        return job == null ? null : job.state;
+    }
+
+    /**
+     * @return Closes running or waiting.
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    private static class Job {
+
+        private final Consumer<State> listener;
+        private volatile State state = State.QUEUED;
+
+        Job(Consumer<State> listener) {
+            this.listener = listener;
+        }
+
+        void setState(State state) {
+            this.state = state;
+            listener.accept(state);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package main.java.live;
+
+/**
+ * A bid that can not be taken, given the current state of the auction.
+ * The message is the reason to be shown to the bidder.
+ */
+public class BidRejectedException extends Exception {
+    public BidRejectedException(String reason) {
+        super(reason);
+    }
+}
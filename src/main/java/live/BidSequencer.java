@@ -0,0 +1,105 @@
+package main.java.live;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single writer per auction.
+ * - Tasks of the same auction go through its own mailbox and run one at a time, in submission order.
+ * - Mailboxes of different auctions are drained in parallel by a shared pool.
+ */
+public class BidSequencer {
+
+    private volatile Executor pool;
+    private final Map<Integer, Lane> lanes = new ConcurrentHashMap<>(); // Auction id <-> Mailbox
+
+    public BidSequencer(Executor pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Run the task after every task previously submitted for the same auction.
+     * @return Completed with the task result, or exceptionally with whatever it threw.
+     */
+    public <T> CompletableFuture<T> submit(int auctionId, Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        lanes.computeIfAbsent(auctionId, id -> new Lane()).enqueue(() -> {
+            try {
+                result.complete(task.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Forget the auction mailbox. Tasks already in it still run.
+     */
+    public SequencerStats remove(int auctionId) {
+        Lane lane = lanes.remove(auctionId);
+        return lane == null ? null : lane.stats;
+    }
+
+    /**
+     * @return Metrics of the auction mailbox, or null if it has none.
+     */
+    public SequencerStats getStats(int auctionId) {
+        Lane lane = lanes.get(auctionId);
+        return lane == null ? null : lane.stats;
+    }
+
+    void setPool(Executor pool) {
+        this.pool = pool;
+    }
+
+    void clear() {
+        lanes.clear();
+    }
+
+    private class Lane implements Runnable {
+
+        private final Queue<Task> mailbox = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final SequencerStats stats = new SequencerStats();
+
+        void enqueue(Runnable runnable) {
+            mailbox.add(new Task(runnable, System.nanoTime()));
+            stats.submitted();
+            if (scheduled.compareAndSet(false, true)) {
+                pool.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Task task;
+                while ((task = mailbox.poll()) != null) {
+                    long start = System.nanoTime();
+                    task.runnable.run();
+                    stats.processed(start - task.enqueuedAt, System.nanoTime() - start);
+                }
+                scheduled.set(false);
+                // Somebody might have enqueued after the last poll but before releasing the lane.
+            } while (!mailbox.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+    }
+
+    private static class Task {
+
+        final Runnable runnable;
+        final long enqueuedAt;
+
+        Task(Runnable runnable, long enqueuedAt) {
+            this.runnable = runnable;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
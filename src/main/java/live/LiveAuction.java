@@ -0,0 +1,230 @@
+package main.java.live;
+
+import main.java.ProjectVariables;
+import main.java.combinatorial.IncrementalKAuctionSolver;
+import main.java.combinatorial.IntListMap;
+import main.java.combinatorial.KAuctionResult;
+import main.java.combinatorial.KBid;
+import main.java.models.Auction;
+import main.java.models.Bid;
+import main.java.models.Event;
+import main.java.models.Good;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory state of an auction.
+ * - Live: the auction is IN_PROGRESS and kept up to date by the LiveAuctionEngine.
+ * - Detached: a one-off snapshot of an auction which is not in progress. It holds no bids.
+ * Live combinatorial auctions keep their provisional winners up to date as bids are accepted.
+ */
+public class LiveAuction {
+
+    private static final int CENTS = 100;
+    private static final double CENTS_EPSILON = 1e-6; // Of a cent. Far above what amounts * 100 are off by.
+
+    public final int id;
+    public final int eventId;
+    public final int ownerId;
+    public final String auctionType;
+    public final double startingPrice;
+
+    private final boolean live;
+    private volatile boolean dropped;
+    private volatile String status;
+    private volatile Bid maxBid;
+    private final Set<Integer> bidders = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> goodIds = ConcurrentHashMap.newKeySet();
+    private final IncrementalKAuctionSolver allocation; // Live combinatorial auctions only. Only used from the auction sequence.
+    private volatile KAuctionResult provisional;
+
+    CompletableFuture<?> lastWrite = CompletableFuture.completedFuture(null); // Only used from the auction sequence.
+
+    LiveAuction(Auction auction, String auctionType) {
+        this(auction, auctionType, false, Collections.emptyList(), Collections.emptyList());
+    }
+
+    LiveAuction(Auction auction, String auctionType, List<Bid> bids, List<Good> goods) {
+        this(auction, auctionType, true, bids, goods);
+    }
+
+    private LiveAuction(Auction auction, String auctionType, boolean live, Collection<Bid> bids,
+                        Collection<Good> goods) {
+        this.id = auction.id;
+        this.eventId = auction.eventId;
+        this.ownerId = auction.ownerId;
+        this.auctionType = auctionType;
+        this.startingPrice = auction.startingPrice;
+        this.status = auction.status;
+        this.live = live;
+
+        for (Bid bid: bids) {
+            bidders.add(bid.ownerId);
+            if (maxBid == null || bid.compareTo(maxBid) > 0) {
+                maxBid = bid;
+            }
+        }
+        for (Good good: goods) {
+            goodIds.add(good.id);
+        }
+
+        if (live && Event.COMBINATORIAL.equals(auctionType)) {
+            allocation = new IncrementalKAuctionSolver();
+            provisional = allocation.add(toKBids(bids), ProjectVariables.COMBINATORIAL_BID_SOLVE_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            allocation = null;
+        }
+    }
+
+    /**
+     * Combinatorial bids, one per bidder: all the goods they bid on, for the amount they offered, in cents.
+     */
+    public static KBid[] toKBids(Collection<Bid> bids) {
+        IntListMap goodIds = new IntListMap(bids.size()); // User <-> Good IDs
+        long[] values = new long[bids.size()]; // Per user entry
+        for (Bid bid: bids) {
+            values[goodIds.add(bid.ownerId, bid.goodId)] = toCents(bid.amount);
+        }
+
+        KBid[] kBids = new KBid[goodIds.size()];
+        for (int entry = 0; entry < kBids.length; entry++) {
+            kBids[entry] = new KBid(goodIds.keyAt(entry), values[entry], goodIds.valuesAt(entry));
+        }
+        return kBids;
+    }
+
+    /**
+     * Amounts are taken to the cent (see BidWS), so they are exact as cents. Rounded, not truncated: i.e. 10.29 is
+     * 1028.9999... times 100.
+     */
+    public static long toCents(double amount) {
+        return Math.round(amount * CENTS);
+    }
+
+    /**
+     * Drop what is below a cent. Amounts are binary, so i.e. 0.29 * 100 is 28.999999999999996: it would lose a cent.
+     */
+    public static double floorCents(double amount) {
+        return Math.floor(amount * CENTS + CENTS_EPSILON) / CENTS;
+    }
+
+    public static double toAmount(long cents) {
+        return (double) cents / CENTS;
+    }
+
+    public boolean isLive() {
+        return live;
+    }
+
+    /**
+     * The state no longer matches DB (some write failed). A fresh one is loaded on next use.
+     */
+    public boolean isDropped() {
+        return dropped;
+    }
+
+    void drop() {
+        dropped = true;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * @return The highest bid so far, or null if nobody has bid yet.
+     */
+    public Bid getMaxBid() {
+        return maxBid;
+    }
+
+    public boolean hasBidder(int userId) {
+        return bidders.contains(userId);
+    }
+
+    Set<Integer> getBidders() {
+        return bidders;
+    }
+
+    /**
+     * Goods loaded along with the auction. Goods not listed here might still exist in DB.
+     */
+    public boolean hasGood(int goodId) {
+        return goodIds.contains(goodId);
+    }
+
+    void addGood(int goodId) {
+        goodIds.add(goodId);
+    }
+
+    /**
+     * Take the bid as the new highest one, as long as it is higher than the current one.
+     */
+    boolean raise(Bid bid) {
+        if (maxBid != null && (bid.amount - maxBid.amount) <= 0) {
+            return false;
+        }
+        maxBid = bid;
+        bidders.add(bid.ownerId);
+        return true;
+    }
+
+    /**
+     * @return The provisional winners of a live combinatorial auction, or null for any other auction.
+     */
+    public KAuctionResult getProvisional() {
+        return provisional;
+    }
+
+    /**
+     * Take the bids into the provisional winners, searching for a short while.
+     */
+    KAuctionResult allocate(Collection<Bid> bids) {
+        provisional = allocation.add(toKBids(bids), ProjectVariables.COMBINATORIAL_BID_SOLVE_MILLIS,
+                TimeUnit.MILLISECONDS);
+        return provisional;
+    }
+
+    /**
+     * Final winners: what the provisional ones could not prove is searched again, within the budget.
+     */
+    KAuctionResult finishAllocation(long budget, TimeUnit unit) {
+        provisional = allocation.finish(budget, unit);
+        return provisional;
+    }
+
+    boolean hasAllocation() {
+        return allocation != null;
+    }
+
+    /**
+     * @return false if the user had already bid.
+     */
+    boolean addBidder(int userId) {
+        return bidders.add(userId);
+    }
+
+    @Override
+    public String toString() {
+        return "LiveAuction{" +
+                "id=" + id +
+                ", eventId=" + eventId +
+                ", auctionType='" + auctionType + '\'' +
+                ", status='" + status + '\'' +
+                ", live=" + live +
+                ", maxBid=" + maxBid +
+                ", bidders=" + bidders.size() +
+                '}';
+    }
+}
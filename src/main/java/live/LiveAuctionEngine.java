@@ -0,0 +1,314 @@
+package main.java.live;
+
+import main.java.combinatorial.KAuctionResult;
+import main.java.dao.AuctionDAO;
+import main.java.dao.BidDAO;
+import main.java.dao.DAOException;
+import main.java.dao.EventDAO;
+import main.java.dao.GoodDAO;
+import main.java.dao.sql.AuctionDAOSQL;
+import main.java.dao.sql.BidDAOSQL;
+import main.java.dao.sql.EventDAOSQL;
+import main.java.dao.sql.GoodDAOSQL;
+import main.java.models.Auction;
+import main.java.models.Bid;
+import main.java.models.Event;
+import main.java.models.Good;
+import main.java.utils.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authoritative in-memory state of the IN_PROGRESS auctions.
+ * - An auction is loaded from DB once (auction, event, bids and goods), the first time it is needed.
+ * - Bids of the same auction are sequenced: they are decided one at a time against memory, while
+ * different auctions proceed in parallel.
+ * - Accepted bids are written through to DB asynchronously. Writes of the same auction are applied in order.
+ * - Combinatorial auctions keep their provisional winners as bids are accepted, so closing one is mostly settling.
+ * - Closing an auction flushes its pending writes and drops its state.
+ */
+public class LiveAuctionEngine {
+
+    private static final int SEQUENCER_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int WRITER_THREADS = 4;
+
+    private static LiveAuctionEngine instance;
+
+    private final AuctionDAO auctionDAO;
+    private final EventDAO eventDAO;
+    private final BidDAO bidDAO;
+    private final GoodDAO goodDAO;
+    private final BidSequencer sequencer;
+    private volatile Executor writer;
+
+    private final Map<Integer, LiveAuction> auctions = new ConcurrentHashMap<>(); // Auction id <-> Live auction
+    private final Map<Integer, Set<Integer>> bidding = new ConcurrentHashMap<>(); // User id <-> Live auction ids
+
+    public LiveAuctionEngine(AuctionDAO auctionDAO, EventDAO eventDAO, BidDAO bidDAO, GoodDAO goodDAO,
+                             Executor sequencerPool, Executor writer) {
+        this.auctionDAO = auctionDAO;
+        this.eventDAO = eventDAO;
+        this.bidDAO = bidDAO;
+        this.goodDAO = goodDAO;
+        this.sequencer = new BidSequencer(sequencerPool);
+        this.writer = writer;
+    }
+
+    public static synchronized LiveAuctionEngine getInstance() {
+        if (instance == null) {
+            instance = new LiveAuctionEngine(AuctionDAOSQL.getInstance(), EventDAOSQL.getInstance(),
+                    BidDAOSQL.getInstance(), GoodDAOSQL.getInstance(),
+                    daemonPool(SEQUENCER_THREADS, "bid-sequencer"), daemonPool(WRITER_THREADS, "live-auction-writer"));
+        }
+        return instance;
+    }
+
+    private static Executor daemonPool(int nThreads, String name) {
+        return Executors.newFixedThreadPool(nThreads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return The live state of the auction if it is IN_PROGRESS, a detached snapshot otherwise,
+     * or null if the auction does not exist.
+     */
+    public LiveAuction get(int auctionId) throws DAOException {
+        LiveAuction liveAuction = auctions.get(auctionId);
+        if (liveAuction != null) {
+            return liveAuction;
+        }
+
+        Auction dbAuction = auctionDAO.getById(auctionId);
+        if (dbAuction == null) {
+            return null;
+        }
+        Event dbEvent = eventDAO.getById(dbAuction.eventId);
+        if (!Auction.IN_PROGRESS.equals(dbAuction.status)) {
+            return new LiveAuction(dbAuction, dbEvent.auctionType);
+        }
+
+        List<Bid> dbBids = bidDAO.getListByAuctionId(auctionId);
+        List<Good> dbGoods = goodDAO.getListByAuctionId(auctionId);
+        liveAuction = new LiveAuction(dbAuction, dbEvent.auctionType, dbBids, dbGoods);
+
+        LiveAuction current = auctions.putIfAbsent(auctionId, liveAuction);
+        if (current != null) {
+            return current;
+        }
+        for (int userId: liveAuction.getBidders()) {
+            markBidding(userId, auctionId);
+        }
+        return liveAuction;
+    }
+
+    /**
+     * Any good may be bid on, not only the ones of the auction. Those are answered from memory.
+     */
+    public boolean goodExists(LiveAuction liveAuction, int goodId) throws DAOException {
+        if (liveAuction.hasGood(goodId)) {
+            return true;
+        }
+        return goodDAO.getById(goodId) != null;
+    }
+
+    /**
+     * Whether the user has bids on an IN_PROGRESS auction other than the given one.
+     * Users who are not bidding on any live auction are looked up in DB.
+     */
+    public boolean isBiddingElsewhere(int userId, int auctionId) throws DAOException {
+        Set<Integer> auctionIds = bidding.get(userId);
+        if (auctionIds != null && !auctionIds.isEmpty()) {
+            for (int id: auctionIds) {
+                if (id != auctionId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Auction dbAuction = auctionDAO.getAuctionWhereUserIsBidding(userId);
+        return dbAuction != null && dbAuction.id != auctionId;
+    }
+
+    /**
+     * Run the task after every other task of the auction, which makes check-then-act on its state safe.
+     * Tasks of an auction whose state has been dropped fail with an IllegalStateException.
+     */
+    public <T> CompletableFuture<T> sequence(LiveAuction liveAuction, Callable<T> task) {
+        return sequencer.submit(liveAuction.id, () -> {
+            if (liveAuction.isDropped()) {
+                throw new IllegalStateException("Live auction has been dropped: " + liveAuction.id);
+            }
+            return task.call();
+        });
+    }
+
+    /**
+     * @return Metrics of the bids sequenced for the auction, or null if it is not live.
+     */
+    public SequencerStats getStats(int auctionId) {
+        return sequencer.getStats(auctionId);
+    }
+
+    /**
+     * Take the bid as the highest of the auction. To be called from the auction sequence.
+     * @return false if it is not higher than the current one.
+     */
+    public boolean raise(LiveAuction liveAuction, Bid bid) {
+        if (!liveAuction.raise(bid)) {
+            return false;
+        }
+        markBidding(bid.ownerId, liveAuction.id);
+        return true;
+    }
+
+    /**
+     * @return false if the user had already bid on the auction. To be called from the auction sequence.
+     */
+    public boolean addBidder(LiveAuction liveAuction, int userId) {
+        if (!liveAuction.addBidder(userId)) {
+            return false;
+        }
+        markBidding(userId, liveAuction.id);
+        return true;
+    }
+
+    /**
+     * Take the accepted bids of a bidder into the provisional winners of a combinatorial auction.
+     * To be called from the auction sequence.
+     * @return The provisional winners, including the new bids.
+     */
+    public KAuctionResult allocate(LiveAuction liveAuction, List<Bid> bids) {
+        return liveAuction.allocate(bids);
+    }
+
+    /**
+     * Final winners of a finished combinatorial auction, from its provisional ones.
+     * @return null if its state is not held (i.e. it has been dropped), so winners have to be found from DB bids.
+     */
+    public KAuctionResult finishAllocation(int auctionId, long budget, TimeUnit unit) {
+        LiveAuction liveAuction = auctions.get(auctionId);
+        if (liveAuction == null || liveAuction.isDropped() || !liveAuction.hasAllocation()
+                || !Auction.FINISHED.equals(liveAuction.getStatus())) {
+            return null;
+        }
+        return liveAuction.finishAllocation(budget, unit);
+    }
+
+    /**
+     * Write the accepted bids through to DB, after any previous write of the auction.
+     * If it is the highest bid, the auction max bid is updated too.
+     * On failure, the auction state is dropped so that it is loaded again from DB.
+     * To be called from the auction sequence.
+     * @return The last bid as stored in DB.
+     */
+    public CompletableFuture<Bid> persist(LiveAuction liveAuction, List<Bid> bids, boolean highest) {
+        // Runs even if the previous write failed.
+        CompletableFuture<Bid> write = liveAuction.lastWrite.handleAsync((previous, error) -> {
+            try {
+                Bid dbBid = null;
+                for (Bid bid: bids) {
+                    dbBid = bidDAO.create(bid);
+                }
+                if (highest && dbBid != null) {
+                    auctionDAO.updateMaxBid(liveAuction.id, dbBid.amount);
+                }
+                return dbBid;
+            } catch (DAOException e) {
+                throw new CompletionException(e);
+            }
+        }, writer);
+        liveAuction.lastWrite = write;
+
+        return write.whenComplete((dbBid, error) -> {
+            if (error != null) {
+                Logger.error("Persist live auction bids", liveAuction.toString(), error.toString());
+                liveAuction.drop();
+                forget(liveAuction);
+            }
+        });
+    }
+
+    /**
+     * Stop taking bids for the auction and wait for its pending writes. To be called before settling it.
+     * The auction is kept as FINISHED, so that it is not loaded again while being settled, until removed.
+     */
+    public void finish(int auctionId) throws DAOException {
+        LiveAuction liveAuction = get(auctionId);
+        if (liveAuction == null || !liveAuction.isLive()) {
+            return;
+        }
+
+        // Bids sequenced after this one find the auction finished.
+        CompletableFuture<?> lastWrite = sequencer.submit(auctionId, () -> {
+            liveAuction.setStatus(Auction.FINISHED);
+            return liveAuction.lastWrite;
+        }).thenCompose(write -> write);
+        try {
+            lastWrite.join();
+        } catch (CompletionException e) {
+            // Already logged by persist, the DB holds whatever could be written.
+        }
+        unmarkBidding(liveAuction);
+    }
+
+    /**
+     * Drop the auction state once it has been settled.
+     */
+    public void remove(int auctionId) {
+        LiveAuction liveAuction = auctions.get(auctionId);
+        if (liveAuction != null) {
+            forget(liveAuction);
+        }
+    }
+
+    private void forget(LiveAuction liveAuction) {
+        if (!auctions.remove(liveAuction.id, liveAuction)) {
+            return;
+        }
+        sequencer.remove(liveAuction.id);
+        unmarkBidding(liveAuction);
+    }
+
+    private void unmarkBidding(LiveAuction liveAuction) {
+        for (int userId: liveAuction.getBidders()) {
+            Set<Integer> auctionIds = bidding.get(userId);
+            if (auctionIds != null) {
+                auctionIds.remove(liveAuction.id);
+            }
+        }
+    }
+
+    private void markBidding(int userId, int auctionId) {
+        bidding.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(auctionId);
+    }
+
+    public int size() {
+        return auctions.size();
+    }
+
+    // For DB integration tests
+    public void setExecutors(Executor sequencerPool, Executor writer) {
+        this.sequencer.setPool(sequencerPool);
+        this.writer = writer;
+    }
+
+    // For DB integration tests
+    public void clear() {
+        auctions.clear();
+        bidding.clear();
+        sequencer.clear();
+    }
+}
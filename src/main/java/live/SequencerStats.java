@@ -0,0 +1,67 @@
+package main.java.live;
+
+import main.java.utils.LatencyStats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the bids sequenced for one auction.
+ */
+public class SequencerStats {
+
+    private final long createdAt = System.nanoTime();
+    private final LongAdder submitted = new LongAdder();
+    private final LatencyStats waitStats = new LatencyStats(); // Time in the mailbox.
+    private final LatencyStats serviceStats = new LatencyStats(); // Time running.
+
+    void submitted() {
+        submitted.increment();
+    }
+
+    void processed(long waitNanos, long serviceNanos) {
+        waitStats.record(waitNanos);
+        serviceStats.record(serviceNanos);
+    }
+
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    public long getProcessedCount() {
+        return serviceStats.getCount();
+    }
+
+    /**
+     * Submitted but not processed yet.
+     */
+    public long getBacklog() {
+        return getSubmittedCount() - getProcessedCount();
+    }
+
+    public LatencyStats getWaitStats() {
+        return waitStats;
+    }
+
+    public LatencyStats getServiceStats() {
+        return serviceStats;
+    }
+
+    /**
+     * @return Processed tasks per second since the auction got its mailbox.
+     */
+    public double getThroughput() {
+        long elapsedNanos = System.nanoTime() - createdAt;
+        return elapsedNanos <= 0 ? 0 : getProcessedCount() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SequencerStats{" +
+                "submitted=" + getSubmittedCount() +
+                ", processed=" + getProcessedCount() +
+                ", throughput=" + String.format("%.1f/s", getThroughput()) +
+                ", wait=" + waitStats +
+                ", service=" + serviceStats +
+                '}';
+    }
+}
@@ -3,7 +3,7 @@ package main.java.models;
 import java.sql.Timestamp;
 import java.util.Objects;
 
-public class Auction extends ModelAbstract {
+public class Auction extends ModelAbstract implements Cloneable {
 
     public static final String PENDING = "PENDING";
     public static final String ACCEPTED = "ACCEPTED";
@@ -79,4 +79,13 @@ public class Auction extends ModelAbstract {
     }
 
     // TODO: Implement set combinatorial winners and get combinatorial winners
+
+    @Override
+    public Auction clone() {
+        try {
+            return (Auction) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
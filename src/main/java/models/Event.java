@@ -2,7 +2,7 @@ package main.java.models;
 
 import java.sql.Timestamp;
 
-public class Event extends ModelAbstract {
+public class Event extends ModelAbstract implements Cloneable {
 
     public static final String ENGLISH = "English";
     public static final String COMBINATORIAL = "Combinatorial";
@@ -68,6 +68,13 @@ public class Event extends ModelAbstract {
                 ", id=" + id +
                 '}';
     }
-}
-
 
+    @Override
+    public Event clone() {
+        try {
+            return (Event) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package main.java.models;
 
-public class Good extends ModelAbstract {
+public class Good extends ModelAbstract implements Cloneable {
 
     public String name;
     public String image;
@@ -27,4 +27,13 @@ public class Good extends ModelAbstract {
         result = 31 * result + auctionId;
         return result;
     }
+
+    @Override
+    public Good clone() {
+        try {
+            return (Good) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -1,36 +1,97 @@
 package main.java.models.meta;
 
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class BodyWS {
     public String type;
-    public String nonce;
+    public String nonce; // Generated on encoding, if none was set.
     public int status = 200;
     public String json;
 
     public BodyWS() {
-        this.nonce = UUID.randomUUID().toString();
+
     }
 
+    /**
+     * Decode a <type>,<nonce>,<status>,<json> frame in a single pass.
+     * - The type goes up to the first comma, the nonce up to the first later comma followed by <digits>,
+     * and the json is the rest of the frame.
+     * - Frames with line terminators, without a numeric status, or with a status that does not fit in an int
+     * decode as an empty BodyWS.
+     */
     public static BodyWS fromString(String text) {
-        Pattern pattern = Pattern.compile("(.*?),(.*?),([0-9]+),(.*)");
-        Matcher matcher = pattern.matcher(text);
+        int length = text.length();
+        int typeEnd = -1;
+        int nonceEnd = -1;
+        int statusEnd = -1;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (isLineTerminator(c)) {
+                return new BodyWS();
+            }
+            if (c != ',' || statusEnd != -1) {
+                continue;
+            }
+            if (typeEnd == -1) {
+                typeEnd = i;
+                continue;
+            }
+            int digitsEnd = i + 1;
+            while (digitsEnd < length && isDigit(text.charAt(digitsEnd))) {
+                digitsEnd++;
+            }
+            if (digitsEnd > i + 1 && digitsEnd < length && text.charAt(digitsEnd) == ',') {
+                nonceEnd = i;
+                statusEnd = digitsEnd;
+                i = digitsEnd;
+            }
+        }
 
-        if (!matcher.matches()) {
+        if (statusEnd == -1) {
             return new BodyWS();
         }
 
+        int status = 0;
+        for (int i = nonceEnd + 1; i < statusEnd; i++) {
+            int digit = text.charAt(i) - '0';
+            if (status > (Integer.MAX_VALUE - digit) / 10) {
+                return new BodyWS();
+            }
+            status = status * 10 + digit;
+        }
+
         BodyWS body = new BodyWS();
-        body.type = matcher.group(1);
-        body.nonce = matcher.group(2);
-        body.status = Integer.valueOf(matcher.group(3));
-        body.json = matcher.group(4);
+        body.type = text.substring(0, typeEnd);
+        body.nonce = text.substring(typeEnd + 1, nonceEnd);
+        body.status = status;
+        body.json = text.substring(statusEnd + 1);
 
         return body;
     }
 
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Same line terminators as java.util.regex.
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Random (version 4) UUID, without going through SecureRandom. Nonces only need to be unique.
+     */
+    private static String newNonce() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & ~(0xC000000000000000L)) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
     public boolean isEmpty() {
         return type == null || type.equals("")
             && nonce == null || nonce.equals("")
@@ -39,6 +100,14 @@ public class BodyWS {
 
     @Override
     public String toString() {
-        return String.format("%s,%s,%s,%s", type, nonce, status, json);
+        if (nonce == null) {
+            nonce = newNonce();
+        }
+        return new StringBuilder()
+                .append(type).append(',')
+                .append(nonce).append(',')
+                .append(status).append(',')
+                .append(json)
+                .toString();
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package main.java.servlets.auction;
 import com.google.gson.Gson;
 import main.java.dao.AuctionDAO;
 import main.java.dao.DAOException;
+import main.java.dao.Page;
 import main.java.dao.sql.AuctionDAOSQL;
 import main.java.gson.BetterGson;
 import main.java.models.Auction;
@@ -16,6 +17,7 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 @WebServlet(name = "AuctionListByEventId", urlPatterns = {"/auctions/list"})
@@ -23,7 +25,11 @@ public class AuctionListByEventId extends HttpServlet {
 
     public static final String ID_NONE = "Event ID can not be empty";
     public static final String ID_INVALID = "Invalid event ID";
+    public static final String STATUS_INVALID = "Invalid auction status";
 
+    /**
+     * Oldest first, a page at a time (see Page). Optionally of a status only.
+     */
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         HttpResponse httpResponse = new HttpResponse(response);
@@ -43,9 +49,21 @@ public class AuctionListByEventId extends HttpServlet {
 
         int eventId = Integer.parseInt(param);
 
+        Page page = Page.parse(request.getParameter("after"), request.getParameter("limit"));
+        if (page == null) {
+            httpResponse.error(Page.INVALID);
+            return;
+        }
+
+        String status = request.getParameter("status");
+        if (status != null && !Arrays.asList(Auction.AUCTION_STATUSES).contains(status)) {
+            httpResponse.error(STATUS_INVALID);
+            return;
+        }
+
         List<Auction> dbAuctions;
         try {
-            dbAuctions = auctionDAO.getListByEventId(eventId);
+            dbAuctions = auctionDAO.getListByEventId(eventId, status, page);
         } catch (DAOException e) {
             Logger.error("Retrieve auction list by event ID: " + eventId, e.toString());
             httpResponse.internalServerError();
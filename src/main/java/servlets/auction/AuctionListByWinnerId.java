@@ -3,6 +3,7 @@ package main.java.servlets.auction;
 import com.google.gson.Gson;
 import main.java.dao.AuctionDAO;
 import main.java.dao.DAOException;
+import main.java.dao.Page;
 import main.java.dao.sql.AuctionDAOSQL;
 import main.java.gson.BetterGson;
 import main.java.models.Auction;
@@ -42,9 +43,15 @@ public class AuctionListByWinnerId extends HttpServlet {
 
         int winnerId = Integer.parseInt(param);
 
+        Page page = Page.parse(request.getParameter("after"), request.getParameter("limit"));
+        if (page == null) {
+            httpResponse.error(Page.INVALID);
+            return;
+        }
+
         List<Auction> dbAuctions;
         try {
-            dbAuctions = auctionDAO.getListByWinnerId(winnerId);
+            dbAuctions = auctionDAO.getListByWinnerId(winnerId, page);
         } catch (DAOException e) {
             Logger.error("Retrieve auction list by winner ID: " + winnerId, e.toString());
             httpResponse.internalServerError();
@@ -3,6 +3,7 @@ package main.java.servlets.bid;
 import com.google.gson.Gson;
 import main.java.dao.BidDAO;
 import main.java.dao.DAOException;
+import main.java.dao.Page;
 import main.java.dao.sql.BidDAOSQL;
 import main.java.gson.BetterGson;
 import main.java.models.Bid;
@@ -55,9 +56,15 @@ public class BidListByOwnerId extends HttpServlet {
             return;
         }
 
+        Page page = Page.parse(request.getParameter("after"), request.getParameter("limit"));
+        if (page == null) {
+            httpResponse.error(Page.INVALID);
+            return;
+        }
+
         List<Bid> dbBids;
         try {
-            dbBids = bidDAO.getListByOwnerId(ownerId);
+            dbBids = bidDAO.getListByOwnerId(ownerId, page);
         } catch (DAOException e) {
             Logger.error("Retrieve bid list by owner ID: " + ownerId, e.toString());
             httpResponse.internalServerError();
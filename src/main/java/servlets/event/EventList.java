@@ -3,6 +3,7 @@ package main.java.servlets.event;
 import com.google.gson.Gson;
 import main.java.dao.DAOException;
 import main.java.dao.EventDAO;
+import main.java.dao.Page;
 import main.java.dao.sql.EventDAOSQL;
 import main.java.gson.BetterGson;
 import main.java.models.Event;
@@ -15,18 +16,39 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 @WebServlet(name = "EventList", urlPatterns = {"/events/list"})
 public class EventList extends HttpServlet {
+
+    public static final String STATUS_INVALID = "Invalid event status";
+
+    /**
+     * Newest first, a page at a time (see Page). Optionally of a status and category only.
+     */
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         HttpResponse httpResponse = new HttpResponse(response);
         EventDAO eventDAO = EventDAOSQL.getInstance();
 
+        Page page = Page.parse(request.getParameter("after"), request.getParameter("limit"));
+        if (page == null) {
+            httpResponse.error(Page.INVALID);
+            return;
+        }
+
+        String status = request.getParameter("status");
+        if (status != null && !Arrays.asList(Event.EVENT_STATUS).contains(status)) {
+            httpResponse.error(STATUS_INVALID);
+            return;
+        }
+
+        String category = request.getParameter("category");
+
         List<Event> dbEvents;
         try {
-            dbEvents = eventDAO.getList();
+            dbEvents = eventDAO.getList(page, status, category);
         } catch (DAOException e) {
             Logger.error("Get event list", e.toString());
             return;
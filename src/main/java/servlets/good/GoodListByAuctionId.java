@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import main.java.dao.AuctionDAO;
 import main.java.dao.DAOException;
 import main.java.dao.GoodDAO;
+import main.java.dao.Page;
 import main.java.dao.sql.AuctionDAOSQL;
 import main.java.dao.sql.GoodDAOSQL;
 import main.java.gson.BetterGson;
@@ -47,6 +48,12 @@ public class GoodListByAuctionId extends HttpServlet {
 
         int auctionId = Integer.parseInt(param);
 
+        Page page = Page.parse(request.getParameter("after"), request.getParameter("limit"));
+        if (page == null) {
+            httpResponse.error(Page.INVALID);
+            return;
+        }
+
         Auction dbAuction;
         try {
             dbAuction = auctionDAO.getById(auctionId);
@@ -63,7 +70,7 @@ public class GoodListByAuctionId extends HttpServlet {
 
         List<Good> dbGoods;
         try {
-            dbGoods = goodDAO.getListByAuctionId(auctionId);
+            dbGoods = goodDAO.getListByAuctionId(auctionId, page);
         } catch (DAOException e) {
             Logger.error("Retrieve event list by auction ID on GoodListByAuctionId:", param, e.toString());
             httpResponse.internalServerError();
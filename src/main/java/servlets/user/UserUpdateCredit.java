@@ -53,33 +53,31 @@ public class UserUpdateCredit extends HttpServlet {
 
         double creditDiff = unsafeUser.credit;
 
-        User user;
+        User dbUser;
         try {
-            user = userDAO.getById(userId);
+            dbUser = userDAO.addCredit(userId, creditDiff);
         } catch (DAOException e) {
-            Logger.error("Get user by ID in update user credit: UserID " + userId, e.toString());
+            Logger.error("Add credit in update user credit: UserID " + userId, String.valueOf(creditDiff), e.toString());
             httpResponse.internalServerError();
             return;
         }
 
-        if (user == null) {
-            httpResponse.error(USER_NOT_EXIST);
-            return;
-        }
-
-        if (user.credit + creditDiff < 0) {
-            httpResponse.error(INVALID_CREDIT_AMOUNT);
-            return;
-        }
-
-        user.credit += creditDiff;
-
-        User dbUser;
-        try {
-            dbUser = userDAO.update(user);
-        } catch(DAOException e) {
-            Logger.error("Create user in update user credit", user.toString(), e.toString());
-            httpResponse.internalServerError();
+        if (dbUser == null) {
+            // Nothing was changed, find out why.
+            User user;
+            try {
+                user = userDAO.getById(userId);
+            } catch (DAOException e) {
+                Logger.error("Get user by ID in update user credit: UserID " + userId, e.toString());
+                httpResponse.internalServerError();
+                return;
+            }
+
+            if (user == null) {
+                httpResponse.error(USER_NOT_EXIST);
+            } else {
+                httpResponse.error(INVALID_CREDIT_AMOUNT);
+            }
             return;
         }
 
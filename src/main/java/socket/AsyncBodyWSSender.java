@@ -0,0 +1,265 @@
+package main.java.socket;
+
+import main.java.models.meta.BodyWS;
+import main.java.utils.LatencyStats;
+
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Non-blocking sender built on top of the session async remote.
+ * - Each session has its own outbound queue, with at most one message in flight at a time (as required by
+ * the async remote). Messages to the same session keep their order.
+ * - Callers never wait for the client: messages are queued and the method returns straight away.
+ * - A body is encoded once, however many sessions it is sent to. They all share the same frame.
+ * - Queues are bounded for the messages a newer one supersedes (see sendLatest). When a slow client falls behind,
+ * the queued one of the same type is replaced by the new one (coalesced), or else the oldest of them is dropped.
+ * Replies and other broadcasts (i.e. state changes) are never dropped.
+ */
+public class AsyncBodyWSSender implements WSSender<BodyWS> {
+
+    public static final int DEFAULT_MAX_QUEUED = 64; // Per session.
+
+    private static AsyncBodyWSSender instance;
+
+    private final int maxQueued;
+
+    // Session <-> Outbound queue. Entries go away together with the sessions.
+    private final Map<Session, Outbox> outboxes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final LatencyStats sendStats = new LatencyStats(); // From queued to delivered.
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public AsyncBodyWSSender(int maxQueued) {
+        if (maxQueued <= 0) {
+            throw new IllegalArgumentException("maxQueued: " + maxQueued);
+        }
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Sessions receive messages from any socket (i.e. broadcasts), so there must be a single sender for all of them.
+     */
+    public static synchronized AsyncBodyWSSender getInstance() {
+        if (instance == null) {
+            instance = new AsyncBodyWSSender(DEFAULT_MAX_QUEUED);
+        }
+        return instance;
+    }
+
+    /**
+     * Queue the body to be sent as a text message.
+     */
+    public void send(Session session, BodyWS body) {
+        enqueue(session, new Message(body, false));
+    }
+
+    /**
+     * Queue the body to be sent to each of the sessions.
+     */
+    public void send(List<Session> sessions, BodyWS body) {
+        broadcast(sessions, new Message(body, false));
+    }
+
+    /**
+     * Queue the body to be sent to each of the sessions, as the latest of its type: it supersedes the previous ones
+     * (i.e. bids, provisional winners). Slow sessions might miss it.
+     * @see AsyncBodyWSSender
+     */
+    public void sendLatest(List<Session> sessions, BodyWS body) {
+        broadcast(sessions, new Message(body, true));
+    }
+
+    /**
+     * Reply to a request.
+     * This method will overwrite the type and nonce of the newBody, with the originBody values.
+     */
+    public void reply(Session session, BodyWS originBody, BodyWS newBody) {
+        newBody.type = originBody.type;
+        newBody.nonce = originBody.nonce;
+
+        send(session, newBody);
+    }
+
+    private void broadcast(List<Session> sessions, Message message) {
+        for (Session session: sessions) {
+            enqueue(session, message);
+        }
+    }
+
+    private void enqueue(Session session, Message message) {
+        Outbox outbox = outboxes.computeIfAbsent(session, s -> new Outbox());
+
+        synchronized (outbox) {
+            if (message.droppable && outbox.queue.size() >= maxQueued && !outbox.makeRoomFor(message)) {
+                dropped.increment();
+                return;
+            }
+            outbox.queue.addLast(message);
+            if (outbox.inFlight) {
+                return;
+            }
+            outbox.inFlight = true;
+        }
+        drain(session, outbox);
+    }
+
+    /**
+     * Send the queue, one message at a time. Called by whoever set the outbox in flight.
+     * Sends completed inline (within sendText) are followed by the next one here, in a loop rather than from the
+     * handler, so that the stack does not grow with the queue.
+     */
+    private void drain(Session session, Outbox outbox) {
+        while (true) {
+            Message message;
+            synchronized (outbox) {
+                message = outbox.queue.pollFirst();
+                if (message == null) {
+                    outbox.inFlight = false;
+                    return;
+                }
+                outbox.sending = true;
+                outbox.completedInline = false;
+            }
+
+            SendHandler handler = result -> onSent(session, outbox, message, result);
+            try {
+                session.getAsyncRemote().sendText(message.frame, handler);
+            } catch (RuntimeException e) {
+                // i.e. the session has been closed. Nothing else will be delivered.
+                failed.increment();
+                synchronized (outbox) {
+                    outbox.queue.clear();
+                    outbox.sending = false;
+                    outbox.inFlight = false;
+                }
+                outboxes.remove(session);
+                return;
+            }
+
+            synchronized (outbox) {
+                outbox.sending = false;
+                if (!outbox.completedInline) {
+                    return; // The handler carries on once the send completes.
+                }
+            }
+        }
+    }
+
+    private void onSent(Session session, Outbox outbox, Message message, SendResult result) {
+        sendStats.record(System.nanoTime() - message.queuedAt);
+        if (result.isOK()) {
+            sent.increment();
+        } else {
+            failed.increment();
+        }
+        synchronized (outbox) {
+            if (outbox.sending) {
+                outbox.completedInline = true; // drain is still within sendText, it carries on.
+                return;
+            }
+        }
+        drain(session, outbox);
+    }
+
+    /* Metrics */
+
+    public LatencyStats getSendStats() {
+        return sendStats;
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Messages waiting to be sent, over all the sessions.
+     */
+    public int getQueuedCount() {
+        int queued = 0;
+        synchronized (outboxes) {
+            for (Outbox outbox: outboxes.values()) {
+                synchronized (outbox) {
+                    queued += outbox.queue.size();
+                }
+            }
+        }
+        return queued;
+    }
+
+    private class Outbox {
+
+        final ArrayDeque<Message> queue = new ArrayDeque<>();
+        boolean inFlight; // Guarded by this.
+        boolean sending; // Within sendText. Guarded by this.
+        boolean completedInline; // The send completed before sendText returned. Guarded by this.
+
+        /**
+         * Remove a queued droppable message, preferably one superseded by the new message.
+         * @return false if there were none queued.
+         */
+        boolean makeRoomFor(Message message) {
+            Message oldestDroppable = null;
+            for (Iterator<Message> iterator = queue.iterator(); iterator.hasNext(); ) {
+                Message queued = iterator.next();
+                if (!queued.droppable) {
+                    continue;
+                }
+                if (queued.type != null && queued.type.equals(message.type)) {
+                    iterator.remove();
+                    coalesced.increment();
+                    return true;
+                }
+                if (oldestDroppable == null) {
+                    oldestDroppable = queued;
+                }
+            }
+            if (oldestDroppable == null) {
+                return false;
+            }
+            queue.remove(oldestDroppable);
+            dropped.increment();
+            return true;
+        }
+    }
+
+    /**
+     * Encoded body, shared by all the sessions it is sent to.
+     */
+    private static class Message {
+
+        final String type;
+        final String frame;
+        final boolean droppable;
+        final long queuedAt = System.nanoTime();
+
+        Message(BodyWS body, boolean droppable) {
+            this.type = body.type;
+            this.frame = BodyEncoder.encodeFrame(body);
+            this.droppable = droppable;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package main.java.socket;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import main.java.ProjectVariables;
+import main.java.combinatorial.KAuctionResult;
 import main.java.combinatorial.KAuctionSolver;
 import main.java.combinatorial.KBid;
 import main.java.dao.*;
@@ -12,6 +13,10 @@ import main.java.dao.sql.GoodDAOSQL;
 import main.java.dao.sql.UserDAOSQL;
 import main.java.dao.sql.EventDAOSQL;
 import main.java.gson.BetterGson;
+import main.java.live.AuctionCloseQueue;
+import main.java.live.BidRejectedException;
+import main.java.live.LiveAuction;
+import main.java.live.LiveAuctionEngine;
 import main.java.models.Auction;
 import main.java.models.Bid;
 import main.java.models.Good;
@@ -26,7 +31,10 @@ import main.java.utils.Logger;
 import javax.websocket.Session;
 import java.sql.Timestamp;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class BidWS implements WS {
@@ -49,6 +57,7 @@ public class BidWS implements WS {
     public static final String DIFFERENT_AMOUNTS = "Bids contain different amounts";
     public static final String DIFFERENT_AUCTIONS = "Bids contain different auctions";
     public static final String USER_ALREADY_BIDDED = "Can only bid once in a combinatorial auction";
+    public static final String AUCTION_CLOSE_BUSY = "Auction is being closed already, or too many auctions are. Try again later.";
 
     public static final String TYPE_AUCTION_SUBSCRIBE = "AuctionSubscribe";
     public static final String TYPE_AUCTION_CONNECTIONS_ONCE = "AuctionConnectionOnce";
@@ -56,10 +65,12 @@ public class BidWS implements WS {
     public static final String TYPE_AUCTION_NEW_DISCONNECTION = "AuctionNewDisconnection";
     public static final String TYPE_AUCTION_BID = "AuctionBid";
     public static final String TYPE_AUCTION_BIDDED = "AuctionBidded";
+    public static final String TYPE_AUCTION_PROVISIONAL_WINNERS = "AuctionProvisionalWinners";
     public static final String TYPE_AUCTION_START = "AuctionStart";
     public static final String TYPE_AUCTION_STARTED = "AuctionStarted";
     public static final String TYPE_AUCTION_CLOSE = "AuctionClose";
     public static final String TYPE_AUCTION_CLOSED = "AuctionClosed";
+    public static final String TYPE_AUCTION_CLOSE_STATE = "AuctionCloseState";
 
     private static final Map<Integer, Set<BidWS>> connected = new ConcurrentHashMap<>(); // Auction id <-> Sockets
 
@@ -67,7 +78,14 @@ public class BidWS implements WS {
 
     Session session;
     HttpSession httpSession;
-    WSSender<BodyWS> sender = new BodyWSSender();
+    WSSender<BodyWS> sender = AsyncBodyWSSender.getInstance();
+    LiveAuctionEngine liveAuctions = LiveAuctionEngine.getInstance();
+    AuctionCloseQueue closes = AuctionCloseQueue.getInstance();
+    UserDAO userDAO = UserDAOSQL.getInstance();
+    AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
+    EventDAO eventDAO = EventDAOSQL.getInstance();
+    BidDAO bidDAO = BidDAOSQL.getInstance();
+    GoodDAO goodDAO = GoodDAOSQL.getInstance();
 
     @Override
     public void onOpen(Session session, HttpSession httpSession) {
@@ -106,9 +124,6 @@ public class BidWS implements WS {
      */
 
     protected void onAuctionSubscribe(BodyWS body) {
-        UserDAO userDAO = UserDAOSQL.getInstance();
-        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
-
         int userId = httpSession.userId();
         if (userId == -1) {
             sender.reply(session, body, BodyWSCommon.unauthorized());
@@ -193,9 +208,6 @@ public class BidWS implements WS {
      */
 
     protected void onAuctionBid(BodyWS body) {
-        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
-        EventDAO eventDAO = EventDAOSQL.getInstance();
-
         int userId = httpSession.userId();
         if (userId == -1) {
             sender.reply(session, body, BodyWSCommon.unauthorized());
@@ -217,47 +229,33 @@ public class BidWS implements WS {
 
         Bid firstBid = unsafeBids[0];
 
-        Auction dbAuction;
+        LiveAuction liveAuction;
         try {
-            dbAuction = auctionDAO.getById(firstBid.auctionId);
+            liveAuction = liveAuctions.get(firstBid.auctionId);
         } catch (DAOException e) {
-            Logger.error("Get auction by ID", String.valueOf(firstBid.auctionId), e.toString());
+            Logger.error("Get live auction by ID", String.valueOf(firstBid.auctionId), e.toString());
             sender.reply(session, body, BodyWSCommon.internalServerError());
             return;
         }
 
-        if (dbAuction == null) {
+        if (liveAuction == null) {
             String json = JsonCommon.error(AUCTION_DOES_NOT_EXIST);
             sender.reply(session, body, BodyWSCommon.error(json));
             return;
         }
 
-        Event dbEvent;
-        try {
-            dbEvent = eventDAO.getById(dbAuction.eventId);
-        } catch (DAOException e) {
-            Logger.error("Get event by ID", String.valueOf(dbAuction.eventId), e.toString());
-            sender.reply(session, body, BodyWSCommon.internalServerError());
-            return;
-        }
-
-        switch (dbEvent.auctionType) {
+        switch (liveAuction.auctionType) {
             case Event.ENGLISH:
-                onEnglishAuctionBid(body, firstBid, dbAuction, userId);
+                onEnglishAuctionBid(body, firstBid, liveAuction, userId);
                 break;
             case Event.COMBINATORIAL:
-                onCombinatorialAuctionBid(body, unsafeBids, dbAuction, userId);
+                onCombinatorialAuctionBid(body, unsafeBids, liveAuction, userId);
                 break;
         }
     }
 
-    private void onEnglishAuctionBid(BodyWS body, Bid unsafeBid, Auction dbAuction, int userId) {
-        BidDAO bidDAO = BidDAOSQL.getInstance();
-        UserDAO userDAO = UserDAOSQL.getInstance();
-        GoodDAO goodDAO = GoodDAOSQL.getInstance();
-        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
-
-        unsafeBid.amount = Math.floor(unsafeBid.amount * 100) / 100;
+    private void onEnglishAuctionBid(BodyWS body, Bid unsafeBid, LiveAuction liveAuction, int userId) {
+        unsafeBid.amount = LiveAuction.floorCents(unsafeBid.amount);
         if (unsafeBid.amount <= 0.1) {
             String json = JsonCommon.error(INVALID_AMOUNT_ERROR);
             sender.reply(session, body, BodyWSCommon.error(json));
@@ -291,38 +289,29 @@ public class BidWS implements WS {
             return;
         }
 
-        if (!dbAuction.status.equals(Auction.IN_PROGRESS)) {
+        if (!liveAuction.getStatus().equals(Auction.IN_PROGRESS)) {
             String json = JsonCommon.error(AUCTION_NOT_IN_PROGRESS);
             sender.reply(session, body, BodyWSCommon.error(json));
             return;
         }
 
-        Good dbGood;
+        boolean goodExists;
         try {
-            dbGood = goodDAO.getById(unsafeBid.goodId);
+            goodExists = liveAuctions.goodExists(liveAuction, unsafeBid.goodId);
         } catch (DAOException e) {
             Logger.error("Get good by ID", String.valueOf(unsafeBid.goodId), e.toString());
             sender.reply(session, body, BodyWSCommon.internalServerError());
             return;
         }
 
-        if (dbGood == null) {
+        if (!goodExists) {
             String json = JsonCommon.error(GOOD_DOES_NOT_EXIST);
             sender.reply(session, body, BodyWSCommon.error(json));
             return;
         }
 
-        List<Bid> dbAuctionBids;
-        try {
-            dbAuctionBids = bidDAO.getListByAuctionId(unsafeBid.auctionId);
-        } catch (DAOException e) {
-            Logger.error("Get bid list by auction ID", String.valueOf(unsafeBid.auctionId), e.toString());
-            sender.reply(session, body, BodyWSCommon.internalServerError());
-            return;
-        }
-
         // User bid amount has to be higher or equal than auction starting price.
-        if (unsafeBid.amount < dbAuction.startingPrice) {
+        if (unsafeBid.amount < liveAuction.startingPrice) {
             String json = JsonCommon.error(LOW_BID_STARTING_PRICE);
             sender.reply(session, body, BodyWSCommon.error(json));
             return;
@@ -335,76 +324,54 @@ public class BidWS implements WS {
             return;
         }
 
-        // User bid has to be higher than the maximum bid for that auction.
-        if (dbAuctionBids.size() > 0) {
-            Bid maxBid = Collections.max(dbAuctionBids);
-            if ((unsafeBid.amount - maxBid.amount) <= 0) {
-                String json = JsonCommon.error(LOW_BID_HIGHER_BID);
-                sender.reply(session, body, BodyWSCommon.error(json));
-                return;
-            }
-        }
-
-        // User can't be bidding on another auction.
-        Auction dbAuctionIsBidding;
-        try {
-            dbAuctionIsBidding = auctionDAO.getAuctionWhereUserIsBidding(userId);
-        } catch (DAOException e) {
-            Logger.error("Get auction where user is bidding", String.valueOf(unsafeBid.auctionId), String.valueOf(userId), e.toString());
-            sender.reply(session, body, BodyWSCommon.internalServerError());
-            return;
-        }
-
-        if (dbAuctionIsBidding != null && dbAuctionIsBidding.id != dbAuction.id) {
-            String json = JsonCommon.error(HAS_BIDDED_IN_IN_PROGRESS_AUCTION_TRYING_TO_BID_ANOTHER);
-            sender.reply(session, body, BodyWSCommon.error(json));
-            return;
-        }
-
         Bid newBid = new Bid();
         newBid.amount = unsafeBid.amount;
         newBid.auctionId = unsafeBid.auctionId;
         newBid.goodId = unsafeBid.goodId;
         newBid.ownerId = this.httpSession.userId();
 
-        Bid dbBid;
-        try {
-            dbBid = bidDAO.create(newBid);
-        } catch (DAOException e) {
-            Logger.error("Create bid", newBid.toString(), e.toString());
-            sender.reply(session, body, BodyWSCommon.internalServerError());
-            return;
-        }
+        liveAuctions.sequence(liveAuction, () -> {
+            // The auction might have been closed in the meantime.
+            if (!liveAuction.getStatus().equals(Auction.IN_PROGRESS)) {
+                throw new BidRejectedException(AUCTION_NOT_IN_PROGRESS);
+            }
 
-        dbAuction.maxBid = dbBid.amount;
-        try {
-            auctionDAO.update(dbAuction);
-        } catch (DAOException e) {
-            Logger.error("Update auction", dbAuction.toString(), e.toString());
-            sender.reply(session, body, BodyWSCommon.internalServerError());
-            return;
-        }
+            // User bid has to be higher than the maximum bid for that auction.
+            Bid maxBid = liveAuction.getMaxBid();
+            if (maxBid != null && (newBid.amount - maxBid.amount) <= 0) {
+                throw new BidRejectedException(LOW_BID_HIGHER_BID);
+            }
 
-        String json = new BetterGson().newInstance().toJson(dbBid);
-        sender.reply(session, body, BodyWSCommon.ok(json));
+            // User can't be bidding on another auction.
+            if (liveAuctions.isBiddingElsewhere(userId, liveAuction.id)) {
+                throw new BidRejectedException(HAS_BIDDED_IN_IN_PROGRESS_AUCTION_TRYING_TO_BID_ANOTHER);
+            }
 
-        // Broadcast bid to everyone in the auction.
-        auctionBidded(dbBid);
-    }
+            liveAuctions.raise(liveAuction, newBid);
+            return liveAuctions.persist(liveAuction, Collections.singletonList(newBid), true);
+        }).thenCompose(write -> write).whenComplete((dbBid, error) -> {
+            if (error != null) {
+                replyBidFailure(body, newBid, error);
+                return;
+            }
+
+            String json = new BetterGson().newInstance().toJson(dbBid);
+            sender.reply(session, body, BodyWSCommon.ok(json));
 
-    private void onCombinatorialAuctionBid(BodyWS body, Bid[] unsafeBids, Auction dbAuction, int userId) {
-        BidDAO bidDAO = BidDAOSQL.getInstance();
-        UserDAO userDAO = UserDAOSQL.getInstance();
-        GoodDAO goodDAO = GoodDAOSQL.getInstance();
+            // Broadcast bid to everyone in the auction.
+            auctionBidded(dbBid);
+        });
+    }
 
+    private void onCombinatorialAuctionBid(BodyWS body, Bid[] unsafeBids, LiveAuction liveAuction, int userId) {
         List<Bid> unsafeBidsList = new ArrayList<>(Arrays.asList(unsafeBids));
 
         // 1. All bids must have the same auction ID and amount.
-        double commonAmount = Math.floor(unsafeBids[0].amount * 100) / 100;
+        double commonAmount = LiveAuction.floorCents(unsafeBids[0].amount);
         int commonAuctionId = unsafeBids[0].auctionId;
         Set<Integer> differentGoods = new HashSet<>();
         for (Bid unsafeBid: unsafeBidsList) {
-            unsafeBid.amount = Math.floor(unsafeBid.amount * 100) / 100;
+            unsafeBid.amount = LiveAuction.floorCents(unsafeBid.amount);
             if (unsafeBid.amount <= 1.0) {
                 String json = JsonCommon.error(INVALID_AMOUNT_ERROR);
                 sender.reply(session, body, BodyWSCommon.error(json));
@@ -431,15 +398,15 @@ public class BidWS implements WS {
             } else {
                 differentGoods.add(unsafeBid.goodId);
                 //1.2. Check good exists
-                Good dbGood;
+                boolean goodExists;
                 try {
-                    dbGood = goodDAO.getById(unsafeBid.goodId);
+                    goodExists = liveAuctions.goodExists(liveAuction, unsafeBid.goodId);
                 } catch (DAOException e) {
                     Logger.error("Get good by ID", String.valueOf(unsafeBid.goodId), e.toString());
                     sender.reply(session, body, BodyWSCommon.internalServerError());
                     return;
                 }
-                if (dbGood == null) {
+                if (!goodExists) {
                     String json = JsonCommon.error(GOOD_DOES_NOT_EXIST);
                     sender.reply(session, body, BodyWSCommon.error(json));
                     return;
@@ -447,7 +414,7 @@ public class BidWS implements WS {
             }
         }
 
-        // 2. Check auction. At this point commonAuctionId == dbAuction.id
+        // 2. Check auction. At this point commonAuctionId == liveAuction.id
         if (commonAuctionId == 0) {
             String json = JsonCommon.error(AUCTION_ID_ERROR);
             sender.reply(session, body, BodyWSCommon.error(json));
@@ -460,7 +427,7 @@ public class BidWS implements WS {
             return;
         }
 
-        if (!dbAuction.status.equals(Auction.IN_PROGRESS)) {
+        if (!liveAuction.getStatus().equals(Auction.IN_PROGRESS)) {
             String json = JsonCommon.error(AUCTION_NOT_IN_PROGRESS);
             sender.reply(session, body, BodyWSCommon.error(json));
             return;
@@ -477,24 +444,7 @@ public class BidWS implements WS {
         }
 
         // 3.1. User hasn't any bid on this auction
-        Set<Bid> userBids;
-        try {
-            userBids = new HashSet<>(bidDAO.getListByOwnerId(userId));
-        } catch (DAOException e) {
-            Logger.error("Bid get user bids at combinatorial auction", String.valueOf(userId), e.toString());
-            sender.reply(session, body, BodyWSCommon.internalServerError());
-            return;
-        }
-        Set<Bid> auctionBids;
-        try {
-            auctionBids = new HashSet<>(bidDAO.getListByAuctionId(commonAuctionId));
-        } catch (DAOException e) {
-            Logger.error("Bid get auction bids at combinatorial auction", String.valueOf(commonAuctionId), e.toString());
-            sender.reply(session, body, BodyWSCommon.internalServerError());
-            return;
-        }
-        userBids.retainAll(auctionBids);
-        if (userBids.size() != 0) {
+        if (liveAuction.hasBidder(userId)) {
             String json = JsonCommon.error(USER_ALREADY_BIDDED);
             sender.reply(session, body, BodyWSCommon.error(json));
             return;
@@ -508,30 +458,90 @@ public class BidWS implements WS {
         }
 
         // Al checks passed ( @zurfyx likes this part ;) )
-        Bid dbBid = null;
+        List<Bid> newBids = new ArrayList<>(unsafeBidsList.size());
         for (Bid unsafeBid: unsafeBidsList) {
             Bid newBid = new Bid();
             newBid.amount = unsafeBid.amount;
             newBid.auctionId = unsafeBid.auctionId;
             newBid.goodId = unsafeBid.goodId;
             newBid.ownerId = this.httpSession.userId();
+            newBids.add(newBid);
+        }
 
-            try {
-                dbBid = bidDAO.create(newBid);
-            } catch (DAOException e) {
-                Logger.error("Create bid", newBid.toString(), e.toString());
-                sender.reply(session, body, BodyWSCommon.internalServerError());
+        liveAuctions.sequence(liveAuction, () -> {
+            if (!liveAuction.getStatus().equals(Auction.IN_PROGRESS)) {
+                throw new BidRejectedException(AUCTION_NOT_IN_PROGRESS);
+            }
+
+            // Concurrent submissions of the same user.
+            if (!liveAuctions.addBidder(liveAuction, userId)) {
+                throw new BidRejectedException(USER_ALREADY_BIDDED);
+            }
+
+            CompletableFuture<Bid> write = liveAuctions.persist(liveAuction, newBids, false);
+            // Solved while the bids are being written.
+            liveAuctions.allocate(liveAuction, newBids);
+            return write;
+        }).thenCompose(write -> write).whenComplete((dbBid, error) -> {
+            if (error != null) {
+                replyBidFailure(body, newBids.get(0), error);
                 return;
             }
+
+            // In this case we protect the bid amount
+            dbBid.amount = 0.0;
+            String json = new BetterGson().newInstance().toJson(dbBid);
+            sender.reply(session, body, BodyWSCommon.ok(json));
+
+            // Broadcast bid to everyone in the auction.
+            auctionBidded(dbBid);
+            // And who would win if the auction closed now (the latest allocation, it might include later bids).
+            auctionProvisionalWinners(liveAuction);
+        });
+    }
+
+    private void replyBidFailure(BodyWS body, Bid bid, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof BidRejectedException) {
+            String json = JsonCommon.error(cause.getMessage());
+            sender.reply(session, body, BodyWSCommon.error(json));
+            return;
         }
 
-        // In this case we protect the bid amount
-        dbBid.amount = 0.0;
-        String json = new BetterGson().newInstance().toJson(dbBid);
-        sender.reply(session, body, BodyWSCommon.ok(json));
+        Logger.error("Place bid", bid.toString(), cause.toString());
+        sender.reply(session, body, BodyWSCommon.internalServerError());
+    }
+
+    protected void auctionProvisionalWinners(LiveAuction liveAuction) {
+        KAuctionResult provisional = liveAuction.getProvisional();
+        if (provisional == null) {
+            return;
+        }
+
+        Auction auction = new Auction();
+        auction.id = liveAuction.id;
+        auction.eventId = liveAuction.eventId;
+        auction.status = liveAuction.getStatus();
+        auction.combinatorialWinners = combinatorialWinners(provisional.winners);
 
-        // Broadcast bid to everyone in the auction.
-        auctionBidded(dbBid);
+        BodyWS body = new BodyWS();
+        body.type = TYPE_AUCTION_PROVISIONAL_WINNERS;
+        body.status = 200;
+        body.json = new BetterGson().newInstance().toJson(auction);
+
+        List<Session> sessions = connected.get(liveAuction.id).stream().map(b -> b.session).collect(Collectors.toList());
+        sender.sendLatest(sessions, body);
+    }
+
+    private static String combinatorialWinners(List<KBid> winnerBids) {
+        StringBuilder winners = new StringBuilder();
+        for (KBid winnerBid: winnerBids) {
+            if (winners.length() > 0) {
+                winners.append(',');
+            }
+            winners.append(winnerBid.id);
+        }
+        return winners.toString();
     }
 
     protected void auctionBidded(Bid newBid) {
@@ -539,8 +549,8 @@ public class BidWS implements WS {
         body.type = TYPE_AUCTION_BIDDED;
         body.json = new BetterGson().newInstance().toJson(newBid);
 
-        List<Session> sessions = connected.get(newBid.auctionId).parallelStream().map(b -> b.session).collect(Collectors.toList());
-        sender.send(sessions, body);
+        List<Session> sessions = connected.get(newBid.auctionId).stream().map(b -> b.session).collect(Collectors.toList());
+        sender.sendLatest(sessions, body);
     }
 
     /**
@@ -548,9 +558,6 @@ public class BidWS implements WS {
      */
 
     public void onAuctionStart(BodyWS body) {
-        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
-        EventDAO eventDAO = EventDAOSQL.getInstance();
-
         int userId = httpSession.userId();
         if (userId == -1) {
             sender.reply(session, body, BodyWSCommon.unauthorized());
@@ -670,7 +677,7 @@ public class BidWS implements WS {
         body.status = 200;
         body.json = new BetterGson().newInstance().toJson(auction);
 
-        List<Session> sessions = connected.get(auction.id).parallelStream().map(b -> b.session).collect(Collectors.toList());
+        List<Session> sessions = connected.get(auction.id).stream().map(b -> b.session).collect(Collectors.toList());
         sender.send(sessions, body);
     }
 
@@ -679,12 +686,6 @@ public class BidWS implements WS {
      */
 
     public void onAuctionClose(BodyWS body) {
-        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
-        EventDAO eventDAO = EventDAOSQL.getInstance();
-        BidDAO bidDAO = BidDAOSQL.getInstance();
-        GoodDAO goodDAO = GoodDAOSQL.getInstance();
-        UserDAO userDAO = UserDAOSQL.getInstance();
-
         int userId = httpSession.userId();
         if (userId == -1) {
             sender.reply(session, body, BodyWSCommon.unauthorized());
@@ -711,12 +712,30 @@ public class BidWS implements WS {
             return;
         }
 
+        // The rest goes to the close queue: the closing user is told how it goes, the socket is free meanwhile.
+        int auctionId = unsafeAuction.id;
+        boolean queued = closes.submit(auctionId, state -> auctionCloseState(body, state), () -> {
+            try {
+                closeAuction(body, auctionId, userId);
+            } catch (RuntimeException e) {
+                // Nobody else would tell the closing user.
+                Logger.error("Close auction", String.valueOf(auctionId), e.toString());
+                sender.reply(session, body, BodyWSCommon.internalServerError());
+            }
+        });
+        if (!queued) {
+            String json = JsonCommon.error(AUCTION_CLOSE_BUSY);
+            sender.reply(session, body, BodyWSCommon.error(json));
+        }
+    }
+
+    private void closeAuction(BodyWS body, int auctionId, int userId) {
         // Retrieve auction
         Auction dbAuction;
         try {
-            dbAuction = auctionDAO.getById(unsafeAuction.id);
+            dbAuction = auctionDAO.getById(auctionId);
         } catch (DAOException e) {
-            Logger.error("Retrieve auction on auction close", String.valueOf(unsafeAuction.id), e.toString());
+            Logger.error("Retrieve auction on auction close", String.valueOf(auctionId), e.toString());
             sender.reply(session, body, BodyWSCommon.internalServerError());
             return;
         }
@@ -768,12 +787,23 @@ public class BidWS implements WS {
 
          */
 
+        closes.setState(auctionId, AuctionCloseQueue.State.SOLVING);
+
         // 1.
         dbAuction.status = Auction.FINISHED;
 
         // 2.
         dbAuction.endingTime = new Timestamp(System.currentTimeMillis());
 
+        // Pending bids have to reach DB before settling. No more bids are taken from now on.
+        try {
+            liveAuctions.finish(dbAuction.id);
+        } catch (DAOException e) {
+            Logger.error("Finish live auction on auction close", dbAuction.toString(), e.toString());
+            sender.reply(session, body, BodyWSCommon.internalServerError());
+            return;
+        }
+
         // 3.
         List<Bid> auctionBids;
 
@@ -786,184 +816,74 @@ public class BidWS implements WS {
             return;
         }
 
+        // User ID <-> Credit to add. Moved together with the auction update, see 4.
+        Map<Integer, Double> credits = new HashMap<>();
+
         switch (dbEvent.auctionType) {
             case Event.ENGLISH: {
                 if (auctionBids.size() > 0) {
                     // 3.1.
                     Bid maxBid = Collections.max(auctionBids);
                     dbAuction.winnerId = maxBid.ownerId;
+                    dbAuction.maxBid = maxBid.amount; // Might have been raised after the auction was read.
+                    closes.setState(auctionId, AuctionCloseQueue.State.SETTLING);
 
                     // 3.2.
-                    User winnerUser;
-                    try {
-                        winnerUser = userDAO.getById(maxBid.ownerId);
-                    } catch (DAOException e) {
-                        Logger.error("Retrieve winner of auction on auction close", maxBid.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
-                    winnerUser.credit -= maxBid.amount;
-                    try {
-                        userDAO.update(winnerUser);
-                    } catch (DAOException e) {
-                        Logger.error("Update winner of auction on auction close", winnerUser.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
+                    credits.merge(maxBid.ownerId, -maxBid.amount, Double::sum);
 
                     // 3.3.
-                    User goodOwner;
-                    try {
-                        goodOwner = userDAO.getById(dbAuction.ownerId);
-                    } catch (DAOException e) {
-                        Logger.error("Retrieve owner of good on auction close", maxBid.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
-                    goodOwner.credit += (1 - ProjectVariables.EVENT_OWNER_FEE - ProjectVariables.HOUSE_FEE) * maxBid.amount;
-                    try {
-                        userDAO.update(goodOwner);
-                    } catch (DAOException e) {
-                        Logger.error("Update owner of good on auction close", goodOwner.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
+                    credits.merge(dbAuction.ownerId,
+                            (1 - ProjectVariables.EVENT_OWNER_FEE - ProjectVariables.HOUSE_FEE) * maxBid.amount, Double::sum);
 
                     // 3.4.
-                    User eventOwner;
-                    try {
-                        eventOwner = userDAO.getById(dbEvent.ownerId);
-                    } catch (DAOException e) {
-                        Logger.error("Retrieve owner of event on auction close", dbEvent.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
-                    eventOwner.credit += ProjectVariables.EVENT_OWNER_FEE * maxBid.amount;
-                    try {
-                        userDAO.update(eventOwner);
-                    } catch (DAOException e) {
-                        Logger.error("Update owner of event on auction close", eventOwner.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
+                    credits.merge(dbEvent.ownerId, ProjectVariables.EVENT_OWNER_FEE * maxBid.amount, Double::sum);
                 }
 
                 break;
             }
             case Event.COMBINATORIAL: {
                 if (auctionBids.size() > 0) {
-                    Map<Integer, List<Integer>> goodIds = new HashMap<>(); // User, Good ID
-                    Map<Integer, Double> valueGoods = new HashMap<>(); // User, Good value
-                    for (Bid bid: auctionBids) {
-                        int bidUserId = bid.ownerId;
-                        int bidGoodId = bid.goodId;
-                        double bidValueGood = bid.amount;
-
-                        if (!goodIds.containsKey(bidUserId)) {
-                            goodIds.put(bidUserId, new ArrayList<>());
-                        }
-                        goodIds.get(bidUserId).add(bidGoodId);
-
-                        valueGoods.put(bidUserId, bidValueGood);
-                    }
-
-                    List<KBid> kBids = new ArrayList<>();
-                    for (Map.Entry<Integer, List<Integer>> entry: goodIds.entrySet()) {
-                        Integer entryUserId = entry.getKey();
-                        int[] entryGoodIds = entry.getValue().stream().mapToInt(i->i).toArray();
-                        Double entryAmountDouble = valueGoods.get(entryUserId);
-                        int entryAmount = entryAmountDouble.intValue();
-                        KBid kBid = new KBid(entryUserId, entryAmount, entryGoodIds);
-                        kBids.add(kBid);
+                    // Provisional winners were kept as bids came in, only what is not proven yet is left to solve.
+                    KAuctionResult kAuctionResult = liveAuctions.finishAllocation(dbAuction.id,
+                            ProjectVariables.COMBINATORIAL_SOLVE_MILLIS, TimeUnit.MILLISECONDS);
+                    if (kAuctionResult == null) {
+                        KAuctionSolver kAuctionSolver = new KAuctionSolver(LiveAuction.toKBids(auctionBids));
+                        kAuctionResult = kAuctionSolver.solveParallel(ProjectVariables.COMBINATORIAL_SOLVE_MILLIS, TimeUnit.MILLISECONDS);
                     }
-
-                    KBid[] kBidsArr = kBids.toArray(new KBid[kBids.size()]);
-                    KAuctionSolver kAuctionSolver = new KAuctionSolver(kBidsArr);
-                    List<KBid> kBidWinners = kAuctionSolver.solve();
-
-                    // Retrieve good owner
-                    User goodOwner;
-                    try {
-                        goodOwner = userDAO.getById(dbAuction.ownerId);
-                    } catch (DAOException e) {
-                        Logger.error("Retrieve owner of good on auction close", dbAuction.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
-
-                    // Retrieve event owner
-                    User eventOwner;
-                    try {
-                        eventOwner = userDAO.getById(dbEvent.ownerId);
-                    } catch (DAOException e) {
-                        Logger.error("Retrieve owner of event on auction close", dbEvent.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
+                    if (!kAuctionResult.optimal) {
+                        Logger.info("Winners of auction " + dbAuction.id + " not proven optimal", kAuctionResult.toString());
                     }
+                    List<KBid> kBidWinners = kAuctionResult.winners;
+                    closes.setState(auctionId, AuctionCloseQueue.State.SETTLING);
 
-                    // Iterate winner bids
-                    String winners = "";
-                    String separator = "";
                     for (KBid winnerBid: kBidWinners) {
+                        double winnerAmount = LiveAuction.toAmount(winnerBid.value);
                         // Discount credit to winners
-                        User winnerUser;
-                        try {
-                            winnerUser = userDAO.getById(winnerBid.id);
-                        } catch (DAOException e) {
-                            Logger.error("Retrieve winner of auction on auction close", winnerBid.toString(), e.toString());
-                            sender.reply(session, body, BodyWSCommon.internalServerError());
-                            return;
-                        }
-                        winnerUser.credit -= winnerBid.value;
-                        // Update winners credit
-                        try {
-                            userDAO.update(winnerUser);
-                        } catch (DAOException e) {
-                            Logger.error("Update winner of auction on auction close", winnerUser.toString(), e.toString());
-                            sender.reply(session, body, BodyWSCommon.internalServerError());
-                            return;
-                        }
+                        credits.merge(winnerBid.id, -winnerAmount, Double::sum);
                         // Add credit to good owner
-                        goodOwner.credit += (1 - ProjectVariables.EVENT_OWNER_FEE - ProjectVariables.HOUSE_COMB_FEE) * winnerBid.value;
+                        credits.merge(dbAuction.ownerId,
+                                (1 - ProjectVariables.EVENT_OWNER_FEE - ProjectVariables.HOUSE_COMB_FEE) * winnerAmount, Double::sum);
                         // Add credit to event owner
-                        eventOwner.credit += ProjectVariables.EVENT_OWNER_FEE * winnerBid.value;
-                        // Change auction combinatorial winners
-                        winners += separator + winnerBid.id;
-                        separator = ",";
-                    }
-                    // Update good owner
-                    try {
-                        userDAO.update(goodOwner);
-                    } catch (DAOException e) {
-                        Logger.error("Update owner of good on auction close", goodOwner.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
+                        credits.merge(dbEvent.ownerId, ProjectVariables.EVENT_OWNER_FEE * winnerAmount, Double::sum);
                     }
 
-                    // Update event owner
-                    try {
-                        userDAO.update(eventOwner);
-                    } catch (DAOException e) {
-                        Logger.error("Update owner of event on auction close", eventOwner.toString(), e.toString());
-                        sender.reply(session, body, BodyWSCommon.internalServerError());
-                        return;
-                    }
-
-                    dbAuction.combinatorialWinners = winners;
+                    // Change auction combinatorial winners
+                    dbAuction.combinatorialWinners = combinatorialWinners(kBidWinners);
                 }
 
                 break;
             }
         }
 
-        // 4.
+        // 4. Credits and auction in one transaction, so a failure can not leave them half settled.
         try {
-            dbAuction = auctionDAO.update(dbAuction);
+            dbAuction = auctionDAO.settle(dbAuction, credits);
         } catch (DAOException e) {
             Logger.error("Update auction on auction close", dbAuction.toString(), e.toString());
             sender.reply(session, body, BodyWSCommon.internalServerError());
             return;
         }
+        liveAuctions.remove(dbAuction.id);
 
         List<Auction> eventAuctionList;
         try {
@@ -997,13 +917,25 @@ public class BidWS implements WS {
         auctionClosed(dbAuction);
     }
 
+    /**
+     * Tell the closing user how the close is going, along with the nonce of their request.
+     */
+    protected void auctionCloseState(BodyWS closeBody, AuctionCloseQueue.State state) {
+        BodyWS body = new BodyWS();
+        body.type = TYPE_AUCTION_CLOSE_STATE;
+        body.nonce = closeBody.nonce;
+        body.status = 200;
+        body.json = JsonCommon.msg(state.name());
+        sender.send(session, body);
+    }
+
     protected void auctionClosed(Auction auction) {
         BodyWS body = new BodyWS();
         body.type = TYPE_AUCTION_CLOSED;
         body.status = 200;
         body.json = new BetterGson().newInstance().toJson(auction);
 
-        List<Session> sessions = connected.get(auction.id).parallelStream().map(b -> b.session).collect(Collectors.toList());
+        List<Session> sessions = connected.get(auction.id).stream().map(b -> b.session).collect(Collectors.toList());
         sender.send(sessions, body);
     }
 
@@ -1037,7 +969,7 @@ public class BidWS implements WS {
         body.status = 200;
         body.json = new BetterGson().newInstance().toJson(broadcastUser);
 
-        List<Session> sessions = connected.get(auctionId).parallelStream().map(b -> b.session).collect(Collectors.toList());
+        List<Session> sessions = connected.get(auctionId).stream().map(b -> b.session).collect(Collectors.toList());
         sender.send(sessions, body);
     }
 
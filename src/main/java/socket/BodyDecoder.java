@@ -10,11 +10,11 @@ public class BodyDecoder implements Decoder.Text<BodyWS> {
 
     /**
      * Decode the information sent through socket.
-     * If it's not complete, an empty BodyWS will be returned.
+     * If it's not complete, an empty BodyWS will be returned. See BodyWS.fromString.
      * A BodyWS json can be treated as follows:
      * private Gson gson = new BetterGson().newInstance();
      * FooModel foo = gson.fromJson(body.json, FooModel.class)
-     * @param s A <type>,<nonce>,<json> string.
+     * @param text A <type>,<nonce>,<status>,<json> string.
      * @return
      * @throws DecodeException
      */
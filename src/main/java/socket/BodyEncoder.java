@@ -15,6 +15,13 @@ public class BodyEncoder implements Encoder.Text<BodyWS> {
 
     @Override
     public String encode(BodyWS body) throws EncodeException {
+        return encodeFrame(body);
+    }
+
+    /**
+     * Text frame of the body. Senders encode a body only once and send the same frame to all its recipients.
+     */
+    public static String encodeFrame(BodyWS body) {
         return body.toString();
     }
 
@@ -25,15 +25,31 @@ public class BodyWSSender implements WSSender<BodyWS> {
 
     /**
      * Send the body to each of the sessions, one by one, as a text messages.
+     * The body is encoded only once, every session gets the same frame.
      * Sessions will be synchronized while sending the data (as they are being used).
      * @see #send(List, BodyWS)
      */
     public void send(List<Session> sessions, BodyWS body) {
+        String frame = BodyEncoder.encodeFrame(body);
         for (Session session: sessions) {
-            send(session, body);
+            synchronized (session) {
+                try {
+                    session.getBasicRemote().sendText(frame);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
         }
     }
 
+    /**
+     * Nothing is ever queued here, so nothing to supersede either.
+     * @see #send(List, BodyWS)
+     */
+    public void sendLatest(List<Session> sessions, BodyWS body) {
+        send(sessions, body);
+    }
+
     /**
      * Reply to a request.
      * This method will overwrite the type and nonce of the newBody, with the originBody values.
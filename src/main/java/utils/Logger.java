@@ -1,6 +1,14 @@
 package main.java.utils;
 
 public class Logger {
+    public static void info(String... messages) {
+        System.out.println("-- INFO: --");
+        for (String message : messages) {
+            System.out.println(message);
+        }
+        System.out.println("------------");
+    }
+
     public static void error(String... messages) {
         System.out.println("-- ERROR: --");
         for (String message : messages) {
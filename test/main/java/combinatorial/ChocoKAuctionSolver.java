@@ -0,0 +1,75 @@
+package main.java.combinatorial;
+
+import org.chocosolver.solver.Model;
+import org.chocosolver.solver.Solution;
+import org.chocosolver.solver.Solver;
+import org.chocosolver.solver.variables.BoolVar;
+import org.chocosolver.solver.variables.IntVar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Winner determination as a generic Choco model, as KAuctionSolver used to do it. Too slow past a few dozen bids,
+ * but simple enough to be the reference for the KAuctionSolver tests.
+ */
+class ChocoKAuctionSolver {
+
+    private Model model;
+    private BoolVar[] selectedBids;
+    private IntVar[] selectedBidsWeights;
+    private IntVar objective;
+    private KBid[] bids;
+
+    ChocoKAuctionSolver(KBid[] bids) {
+        this.model = new Model();
+        this.bids = bids;
+        this.createModel();
+    }
+
+    List<KBid> solve() {
+        Solver solver = model.getSolver();
+        Solution solution = solver.findOptimalSolution(objective, Model.MAXIMIZE);
+
+        List<KBid> winnerBids = new ArrayList<>();
+        for (int i = 0; i < selectedBids.length; i++) {
+            if (solution.getIntVal(selectedBids[i]) == 1) {
+                // Selected bid
+                winnerBids.add(bids[i]);
+            }
+        }
+        return winnerBids;
+    }
+
+    private void createModel() {
+        selectedBids = new BoolVar[bids.length];
+        selectedBidsWeights = new IntVar[bids.length];
+
+        // Variable initialization
+        // Choco domains are ints: test instances have to be small enough.
+        int totalWeight = 0;
+        for (int i = 0; i < bids.length; i++) {
+            BoolVar selectedBid = model.boolVar("bid" + i);
+            IntVar selectedBidWeight = model.intScaleView(selectedBid, Math.toIntExact(bids[i].value));
+            totalWeight = Math.addExact(totalWeight, Math.toIntExact(bids[i].value));
+            selectedBids[i] = selectedBid;
+            selectedBidsWeights[i] = selectedBidWeight;
+        }
+        objective = model.intVar("objective", 0, totalWeight);
+
+        // Objective function
+        model.sum(selectedBidsWeights, "=", objective).post();
+
+        // Subject to
+        IntListMap conflicts = KBid.getBidConflicts(bids);
+        for (int good = 0; good < conflicts.size(); good++) {
+            int[] conflictingBids = conflicts.valuesAt(good);
+            IntVar[] c = new IntVar[conflictingBids.length];
+            for (int i = 0; i < conflictingBids.length; i++) {
+                c[i] = selectedBids[conflictingBids[i]];
+            }
+            model.sum(c, "<=", 1).post();
+        }
+    }
+
+}
@@ -0,0 +1,95 @@
+package main.java.combinatorial;
+
+import main.java.utils.DummyGenerator;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class IncrementalKAuctionSolverTest {
+
+    @Test
+    public void every_bid_should_leave_the_optimal_allocation() {
+        Random random = new Random(11);
+        KBid[] bids = DummyGenerator.getRandomKBids(random, 40, 20);
+        IncrementalKAuctionSolver solver = new IncrementalKAuctionSolver();
+
+        for (int i = 0; i < bids.length; i++) {
+            KAuctionResult result = solver.add(bids[i], 1, TimeUnit.MINUTES);
+
+            KBid[] added = new KBid[i + 1];
+            System.arraycopy(bids, 0, added, 0, i + 1);
+            assertTrue(result.optimal);
+            assertDisjoint(result.winners);
+            assertEquals(value(new ChocoKAuctionSolver(added).solve()), result.value);
+            assertEquals(value(result.winners), result.value);
+        }
+        assertEquals(bids.length, solver.size());
+    }
+
+    @Test
+    public void warm_start_should_never_lose_value() {
+        Random random = new Random(13);
+        KBid[] bids = DummyGenerator.getRandomKBids(random, 300, 150);
+        IncrementalKAuctionSolver solver = new IncrementalKAuctionSolver();
+
+        long previousValue = 0;
+        for (KBid bid: bids) {
+            // No time to search: only the previous winners and the greedy fill.
+            KAuctionResult result = solver.add(bid, 0, TimeUnit.NANOSECONDS);
+            assertDisjoint(result.winners);
+            assertTrue(result.value >= previousValue);
+            assertTrue(result.upperBound >= result.value);
+            previousValue = result.value;
+        }
+
+        KAuctionResult result = solver.finish(1, TimeUnit.MINUTES);
+        assertTrue(result.optimal);
+        assertEquals(new KAuctionSolver(bids).solve(1, TimeUnit.MINUTES).value, result.value);
+    }
+
+    @Test
+    public void bids_without_goods_should_always_win() {
+        IncrementalKAuctionSolver solver = new IncrementalKAuctionSolver();
+        solver.add(new KBid(1, 10, new int[]{1, 2}), 1, TimeUnit.SECONDS);
+        solver.add(new KBid(2, 5, new int[]{}), 1, TimeUnit.SECONDS);
+
+        KAuctionResult result = solver.add(new KBid(3, 15, new int[]{2, 3}), 1, TimeUnit.SECONDS);
+
+        assertEquals(2, result.winners.size());
+        assertEquals(2, result.winners.get(0).id);
+        assertEquals(3, result.winners.get(1).id);
+        assertEquals(20, result.value);
+    }
+
+    @Test
+    public void no_bids_should_have_no_winners() {
+        KAuctionResult result = new IncrementalKAuctionSolver().finish(1, TimeUnit.SECONDS);
+
+        assertTrue(result.winners.isEmpty());
+        assertTrue(result.optimal);
+        assertEquals(0, result.value);
+    }
+
+    private static void assertDisjoint(List<KBid> winners) {
+        Set<Integer> goods = new HashSet<>();
+        for (KBid winner: winners) {
+            for (int good: winner.goodsIds) {
+                assertTrue(goods.add(good));
+            }
+        }
+    }
+
+    private static long value(List<KBid> winners) {
+        long value = 0;
+        for (KBid winner: winners) {
+            value += winner.value;
+        }
+        return value;
+    }
+}
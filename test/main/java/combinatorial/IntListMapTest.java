@@ -0,0 +1,54 @@
+package main.java.combinatorial;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntListMapTest {
+
+    @Test
+    public void values_should_be_kept_per_key_in_order() {
+        IntListMap map = new IntListMap(1);
+
+        assertEquals(0, map.add(10, 1));
+        assertEquals(1, map.add(-3, 2));
+        assertEquals(0, map.add(10, 3));
+        assertEquals(2, map.addKey(7));
+
+        assertEquals(3, map.size());
+        assertArrayEquals(new int[]{1, 3}, map.get(10));
+        assertArrayEquals(new int[]{2}, map.get(-3));
+        assertArrayEquals(new int[]{}, map.get(7));
+        assertNull(map.get(8));
+        assertEquals(-1, map.entryOf(8));
+        assertEquals(-3, map.keyAt(1));
+        assertEquals(2, map.valueCountAt(0));
+    }
+
+    @Test
+    public void should_match_a_linked_hash_map() {
+        Random random = new Random(3);
+        IntListMap map = new IntListMap();
+        Map<Integer, List<Integer>> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(20000) * (random.nextBoolean() ? 1 : -64);
+            map.add(key, i);
+            expected.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        assertEquals(expected.size(), map.size());
+        int entry = 0;
+        for (Map.Entry<Integer, List<Integer>> expectedEntry: expected.entrySet()) {
+            assertEquals((int) expectedEntry.getKey(), map.keyAt(entry));
+            assertArrayEquals(expectedEntry.getValue().stream().mapToInt(i -> i).toArray(), map.valuesAt(entry));
+            assertEquals(entry, map.entryOf(expectedEntry.getKey()));
+            entry++;
+        }
+    }
+}
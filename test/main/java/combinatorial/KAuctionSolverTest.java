@@ -1,8 +1,15 @@
 package main.java.combinatorial;
 
+import main.java.utils.DummyGenerator;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -41,4 +48,180 @@ public class KAuctionSolverTest {
         assertEquals(1, winners.size());
         assertEquals(new KBid(2, 20, new int[]{2, 4, 3}), winners.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void solve_should_match_choco() {
+        Random random = new Random(7);
+        for (int instance = 0; instance < 50; instance++) {
+            int bidCount = 1 + random.nextInt(25);
+            KBid[] bids = DummyGenerator.getRandomKBids(random, bidCount, 1 + random.nextInt(15));
+
+            List<KBid> winners = new KAuctionSolver(bids).solve();
+
+            assertDisjoint(winners);
+            assertEquals(value(new ChocoKAuctionSolver(bids).solve()), value(winners));
+        }
+    }
+
+    @Test
+    public void dominated_and_worthless_bids_should_not_win() {
+        KBid[] bids = {new KBid(1, 10, new int[]{1, 2}),
+                new KBid(2, 10, new int[]{1}), // Same value, fewer goods.
+                new KBid(3, 0, new int[]{3}),
+                new KBid(4, 5, new int[]{})}; // No goods, no conflicts.
+
+        List<KBid> winners = new KAuctionSolver(bids).solve();
+
+        assertEquals(Arrays.asList(bids[1], bids[3]), winners);
+    }
+
+    @Test
+    public void no_bids_should_have_no_winners() {
+        assertEquals(Collections.emptyList(), new KAuctionSolver(new KBid[0]).solve());
+    }
+
+    @Test(timeout = 10000)
+    public void solve_should_scale_past_choco() {
+        // Choco takes tens of seconds from 80 bids on.
+        KBid[] bids = DummyGenerator.getRandomKBids(new Random(42), 400, 200);
+
+        List<KBid> winners = new KAuctionSolver(bids).solve();
+
+        assertDisjoint(winners);
+        assertTrue(value(winners) > 0);
+    }
+
+    @Test
+    public void finished_solve_should_be_optimal() {
+        KBid[] bids = DummyGenerator.getRandomKBids(new Random(3), 20, 10);
+
+        KAuctionResult result = new KAuctionSolver(bids).solve(1, TimeUnit.MINUTES);
+
+        assertTrue(result.optimal);
+        assertEquals(value(result.winners), result.value);
+        assertEquals(result.value, result.upperBound);
+        assertEquals(0.0, result.getGap(), 0.0);
+        assertTrue(result.nodes > 0);
+    }
+
+    @Test(timeout = 10000)
+    public void timed_solve_should_return_the_best_allocation_found() {
+        // Takes several seconds to prove optimal.
+        KBid[] bids = DummyGenerator.getRandomKBids(new Random(42), 480, 240);
+        long timedOut = KAuctionSolver.getStats().getTimedOutCount();
+
+        KAuctionResult result = new KAuctionSolver(bids).solve(50, TimeUnit.MILLISECONDS);
+
+        assertFalse(result.optimal);
+        assertDisjoint(result.winners);
+        assertEquals(value(result.winners), result.value);
+        assertTrue(result.upperBound >= result.value);
+        assertTrue(result.getGap() >= 0 && result.getGap() < 1);
+        assertTrue(result.solveNanos < TimeUnit.SECONDS.toNanos(5));
+        assertEquals(timedOut + 1, KAuctionSolver.getStats().getTimedOutCount());
+    }
+
+    @Test
+    public void parallel_solve_should_match_choco() {
+        Random random = new Random(11);
+        for (int instance = 0; instance < 20; instance++) {
+            KBid[] bids = DummyGenerator.getRandomKBids(random, 1 + random.nextInt(25), 1 + random.nextInt(15));
+
+            KAuctionResult result = new KAuctionSolver(bids).solveParallel(4, 1, TimeUnit.MINUTES);
+
+            assertTrue(result.optimal);
+            assertDisjoint(result.winners);
+            assertEquals(value(result.winners), result.value);
+            assertEquals(value(new ChocoKAuctionSolver(bids).solve()), result.value);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void timed_parallel_solve_should_return_the_best_allocation_found() {
+        KBid[] bids = DummyGenerator.getRandomKBids(new Random(42), 480, 240);
+
+        KAuctionResult result = new KAuctionSolver(bids).solveParallel(4, 50, TimeUnit.MILLISECONDS);
+
+        assertFalse(result.optimal);
+        assertDisjoint(result.winners);
+        assertEquals(value(result.winners), result.value);
+        assertTrue(result.upperBound >= result.value);
+    }
+
+    @Test
+    public void components_should_be_solved_apart() {
+        // Several small problems on disjoint goods, and bids without goods.
+        Random random = new Random(5);
+        KBid[] bids = new KBid[0];
+        long chocoValue = 0;
+        for (int component = 0; component < 8; component++) {
+            KBid[] componentBids = DummyGenerator.getRandomKBids(random, 60, 10);
+            for (KBid bid: componentBids) {
+                bid.id += component * 100;
+                for (int i = 0; i < bid.goodsIds.length; i++) {
+                    bid.goodsIds[i] += component * 100;
+                }
+            }
+            chocoValue += value(new ChocoKAuctionSolver(componentBids).solve());
+            bids = concat(bids, componentBids);
+        }
+        bids = concat(bids, new KBid[]{new KBid(1000, 7, new int[]{})});
+
+        KAuctionResult result = new KAuctionSolver(bids).solve(1, TimeUnit.MINUTES);
+        KAuctionResult parallelResult = new KAuctionSolver(bids).solveParallel(4, 1, TimeUnit.MINUTES);
+
+        assertTrue(result.optimal);
+        assertDisjoint(result.winners);
+        assertEquals(chocoValue + 7, result.value);
+        assertEquals(value(result.winners), result.value);
+        assertTrue(parallelResult.optimal);
+        assertDisjoint(parallelResult.winners);
+        assertEquals(chocoValue + 7, parallelResult.value);
+    }
+
+    @Test
+    public void large_values_should_be_exact_to_the_cent() {
+        // Past what doubles hold to the unit: one cent decides.
+        long half = 50_000_000_000_000_000L;
+        KBid[] bids = {new KBid(1, half, new int[]{1}),
+                new KBid(2, half, new int[]{2}),
+                new KBid(3, 2 * half + 1, new int[]{1, 2}),
+                new KBid(4, half, new int[]{3, 4}),
+                new KBid(5, half, new int[]{4, 5}),
+                new KBid(6, half - 1, new int[]{3})};
+
+        KAuctionResult result = new KAuctionSolver(bids).solve(1, TimeUnit.MINUTES);
+
+        assertTrue(result.optimal);
+        assertEquals(Arrays.asList(bids[2], bids[4], bids[5]), result.winners);
+        assertEquals(4 * half, result.value);
+        assertEquals(result.value, result.upperBound);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void values_adding_up_past_long_should_be_refused() {
+        KBid[] bids = {new KBid(1, Long.MAX_VALUE / 2 + 1, new int[]{1}),
+                new KBid(2, Long.MAX_VALUE / 2 + 1, new int[]{1})};
+
+        new KAuctionSolver(bids);
+    }
+
+    private static KBid[] concat(KBid[] first, KBid[] second) {
+        KBid[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    private static void assertDisjoint(List<KBid> winners) {
+        Set<Integer> goods = new HashSet<>();
+        for (KBid winner: winners) {
+            for (int good: winner.goodsIds) {
+                assertTrue("Good " + good + " sold twice", goods.add(good));
+            }
+        }
+    }
+
+    private static long value(List<KBid> winners) {
+        return winners.stream().mapToLong(bid -> bid.value).sum();
+    }
+}
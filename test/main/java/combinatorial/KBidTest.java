@@ -0,0 +1,32 @@
+package main.java.combinatorial;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class KBidTest {
+
+    @Test
+    public void bids_sharing_goods_should_be_in_the_same_component() {
+        KBid[] bids = {new KBid(1, 10, new int[]{1, 2}),
+                new KBid(2, 10, new int[]{5}),
+                new KBid(3, 10, new int[]{2, 3}),
+                new KBid(4, 10, new int[]{}),
+                new KBid(5, 10, new int[]{4, 5}),
+                new KBid(6, 10, new int[]{3})};
+
+        List<int[]> components = KBid.getConflictComponents(bids);
+
+        assertEquals(3, components.size());
+        assertArrayEquals(new int[]{3}, components.get(0));
+        assertArrayEquals(new int[]{0, 2, 5}, components.get(1));
+        assertArrayEquals(new int[]{1, 4}, components.get(2));
+    }
+
+    @Test
+    public void no_bids_should_have_no_components() {
+        assertTrue(KBid.getConflictComponents(new KBid[0]).isEmpty());
+    }
+}
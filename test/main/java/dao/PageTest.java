@@ -0,0 +1,37 @@
+package main.java.dao;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PageTest {
+
+    @Test
+    public void test_first_page_when_no_parameters() {
+        Page page = Page.parse(null, null);
+        assertTrue(page.isFirst());
+        assertEquals(Page.DEFAULT_LIMIT, page.limit);
+    }
+
+    @Test
+    public void test_page_after_id() {
+        Page page = Page.parse("24", "10");
+        assertFalse(page.isFirst());
+        assertEquals(24, page.after);
+        assertEquals(10, page.limit);
+    }
+
+    @Test
+    public void test_limit_brought_down_to_max() {
+        assertEquals(Page.MAX_LIMIT, Page.parse(null, String.valueOf(Page.MAX_LIMIT + 1)).limit);
+    }
+
+    @Test
+    public void test_invalid_pages() {
+        assertNull(Page.parse("abc", null));
+        assertNull(Page.parse(null, "abc"));
+        assertNull(Page.parse("-1", null));
+        assertNull(Page.parse(null, "0"));
+        assertNull(Page.parse(null, "99999999999"));
+    }
+}
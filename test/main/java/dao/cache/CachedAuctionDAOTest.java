@@ -0,0 +1,82 @@
+package main.java.dao.cache;
+
+import main.java.dao.AuctionDAO;
+import main.java.dao.DAOException;
+import main.java.models.Auction;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class CachedAuctionDAOTest {
+
+    private final AuctionDAO sqlDAO = mock(AuctionDAO.class);
+    private final AuctionDAO auctionDAO = new CachedAuctionDAO(sqlDAO);
+
+    @After
+    public void clearCaches() {
+        EntityCaches.clearAll();
+    }
+
+    private static Auction auction(int id, String status) {
+        Auction auction = new Auction();
+        auction.id = id;
+        auction.status = status;
+        return auction;
+    }
+
+    @Test
+    public void repeated_reads_should_reach_db_once() throws DAOException {
+        when(sqlDAO.getById(1)).thenReturn(auction(1, Auction.IN_PROGRESS));
+
+        assertEquals(Auction.IN_PROGRESS, auctionDAO.getById(1).status);
+        assertEquals(Auction.IN_PROGRESS, auctionDAO.getById(1).status);
+
+        verify(sqlDAO, times(1)).getById(1);
+    }
+
+    @Test
+    public void update_should_invalidate_even_if_it_fails() throws DAOException {
+        when(sqlDAO.getById(1)).thenReturn(auction(1, Auction.IN_PROGRESS), auction(1, Auction.FINISHED));
+        when(sqlDAO.update(any(Auction.class))).thenThrow(new DAOException(new RuntimeException("Down")));
+
+        auctionDAO.getById(1);
+        try {
+            auctionDAO.update(auction(1, Auction.FINISHED));
+            fail("Update should fail");
+        } catch (DAOException e) {
+            // Expected
+        }
+
+        assertEquals(Auction.FINISHED, auctionDAO.getById(1).status);
+    }
+
+    @Test
+    public void settle_should_invalidate_auction_and_credited_users() throws DAOException {
+        when(sqlDAO.getById(1)).thenReturn(auction(1, Auction.IN_PROGRESS));
+        auctionDAO.getById(1);
+        long userInvalidations = EntityCaches.USERS.getInvalidations();
+
+        auctionDAO.settle(auction(1, Auction.FINISHED), Collections.singletonMap(7, -10.0));
+        auctionDAO.getById(1);
+
+        verify(sqlDAO, times(2)).getById(1);
+        assertEquals(userInvalidations + 1, EntityCaches.USERS.getInvalidations());
+    }
+
+    @Test
+    public void update_of_max_bid_should_invalidate() throws DAOException {
+        when(sqlDAO.getById(anyInt())).thenReturn(auction(1, Auction.IN_PROGRESS));
+
+        auctionDAO.getById(1);
+        auctionDAO.updateMaxBid(1, 10);
+        auctionDAO.getById(1);
+
+        verify(sqlDAO, times(2)).getById(1);
+    }
+}
@@ -0,0 +1,119 @@
+package main.java.dao.cache;
+
+import main.java.dao.DAOException;
+import main.java.models.User;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class EntityCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private EntityCache<User> newCache(int maxSize) {
+        return new EntityCache<>("user", User::clone, maxSize, 10, TimeUnit.NANOSECONDS, now::get);
+    }
+
+    private User load(int id) {
+        loads.incrementAndGet();
+        User user = new User();
+        user.id = id;
+        user.credit = 100;
+        return user;
+    }
+
+    @Test
+    public void second_read_should_be_a_hit() throws DAOException {
+        EntityCache<User> cache = newCache(8);
+
+        assertEquals(1, cache.get(1, this::load).id);
+        assertEquals(1, cache.get(1, this::load).id);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void cached_entity_should_not_change_with_the_one_handed_out() throws DAOException {
+        EntityCache<User> cache = newCache(8);
+
+        User user = cache.get(1, this::load);
+        user.credit = 0;
+        cache.get(1, this::load).credit = 0;
+
+        assertEquals(100, cache.get(1, this::load).credit, 0);
+    }
+
+    @Test
+    public void entries_should_expire_after_ttl() throws DAOException {
+        EntityCache<User> cache = newCache(8);
+
+        cache.get(1, this::load);
+        now.set(9);
+        cache.get(1, this::load);
+        assertEquals(1, loads.get());
+
+        now.set(10);
+        cache.get(1, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void least_recently_used_should_be_evicted_past_max_size() throws DAOException {
+        EntityCache<User> cache = newCache(2);
+
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+        cache.get(3, this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+        cache.get(2, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void invalidated_entry_should_be_loaded_again() throws DAOException {
+        EntityCache<User> cache = newCache(8);
+
+        cache.get(1, this::load);
+        cache.invalidate(1);
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    public void load_racing_with_invalidation_should_not_be_cached() throws DAOException {
+        EntityCache<User> cache = newCache(8);
+
+        cache.get(1, id -> {
+            User user = load(id);
+            cache.invalidate(id); // Written while it was being read.
+            return user;
+        });
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void missing_entity_should_not_be_cached() throws DAOException {
+        EntityCache<User> cache = newCache(8);
+
+        assertNull(cache.get(1, id -> null));
+        assertNotNull(cache.get(1, this::load));
+        assertEquals(0, cache.getHits());
+    }
+}
@@ -1,19 +1,22 @@
 package main.java.dao.sql;
 
 import main.java.EmbeddedPostgresWrapper;
+import main.java.dao.cache.EntityCaches;
+import main.java.db.Migrator;
 import main.java.db.Source;
-import main.java.utils.SQLFileExecutor;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
-import org.mockito.Mockito;
 
 import javax.naming.NamingException;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 public abstract class AbstractDBTest {
 
@@ -28,24 +31,17 @@ public abstract class AbstractDBTest {
 
     @Before
     public void createAllTables() throws IOException, SQLException, NamingException {
-        SQLFileExecutor.executeSQLFile(Source.getInstance().getConnection(),
-                new FileInputStream("db/v1.0.sql"));
-        SQLFileExecutor.executeSQLFile(Source.getInstance().getConnection(),
-                new FileInputStream("db/v1.1.sql"));
-        SQLFileExecutor.executeSQLFile(Source.getInstance().getConnection(),
-                new FileInputStream("db/v1.2.sql"));
-        SQLFileExecutor.executeSQLFile(Source.getInstance().getConnection(),
-                new FileInputStream("db/v1.3.sql"));
-        SQLFileExecutor.executeSQLFile(Source.getInstance().getConnection(),
-                new FileInputStream("db/v1.4.sql"));
-        SQLFileExecutor.executeSQLFile(Source.getInstance().getConnection(),
-                new FileInputStream("db/v1.5.sql"));
+        // Only the first test of the run applies them, the DB is kept for the rest.
+        new Migrator(Source.getInstance().getConnection()).migrate(new File("db"));
     }
 
     @After
-    public void deleteAllTables() throws FileNotFoundException, SQLException, NamingException {
-        SQLFileExecutor.executeSQLFile(Source.getInstance().getConnection(),
-                new FileInputStream("db/__reset__/reset-db.sql"));
+    public void deleteAllTables() throws IOException, SQLException, NamingException {
+        String clear = new String(Files.readAllBytes(Paths.get("db/__reset__/clear-db.sql")), StandardCharsets.UTF_8);
+        try (Statement statement = Source.getInstance().getConnection().createStatement()) {
+            statement.execute(clear);
+        }
+        EntityCaches.clearAll();
     }
 
     @AfterClass
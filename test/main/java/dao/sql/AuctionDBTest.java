@@ -7,9 +7,11 @@ import main.java.utils.DummyGenerator;
 import main.java.utils.ImpreciseDate;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -278,6 +280,67 @@ public class AuctionDBTest extends AbstractDBTest {
         assertAuctionListEquals(expectedAuctionList, outputAuctionList);
     }
 
+    @Test
+    public void test_list_of_auctions_for_an_event_by_pages() throws Exception {
+        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
+        Event dummyEvent = DBFeeder.createDummyEvent();
+
+        List<Auction> insertedAuctions = new LinkedList<>();
+        for (int i = 0; i < 3; i++) {
+            insertedAuctions.add(DBFeeder.createDummyAuction(dummyEvent.id, dummyEvent.ownerId));
+        }
+
+        List<Auction> firstPage = auctionDAO.getListByEventId(dummyEvent.id, null, new Page(0, 2));
+        assertEquals(2, firstPage.size());
+        assertAuctionListEquals(insertedAuctions.subList(0, 2), firstPage);
+
+        List<Auction> secondPage = auctionDAO.getListByEventId(dummyEvent.id, null, new Page(firstPage.get(1).id, 2));
+        assertEquals(1, secondPage.size());
+        assertAuctionListEquals(insertedAuctions.subList(2, 3), secondPage);
+    }
+
+    @Test
+    public void test_list_of_auctions_for_an_event_by_status() throws Exception {
+        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
+        Event dummyEvent = DBFeeder.createDummyEvent();
+
+        Auction insertedAuction = DBFeeder.createDummyAuction(dummyEvent.id, dummyEvent.ownerId);
+        Auction insertedOtherAuction = DBFeeder.createOtherDummyAuction(dummyEvent.id, dummyEvent.ownerId);
+
+        List<Auction> byStatus = auctionDAO.getListByEventId(dummyEvent.id, insertedOtherAuction.status, Page.first());
+        assertEquals(1, byStatus.size());
+        assertAuctionListEquals(new LinkedList<Auction>() {{ add(insertedOtherAuction); }}, byStatus);
+
+        byStatus = auctionDAO.getListByEventId(dummyEvent.id, insertedAuction.status, Page.first());
+        assertEquals(1, byStatus.size());
+        assertAuctionListEquals(new LinkedList<Auction>() {{ add(insertedAuction); }}, byStatus);
+
+        assertEquals(0, auctionDAO.getListByEventId(dummyEvent.id, Auction.FINISHED, Page.first()).size());
+    }
+
+    @Test
+    public void test_list_of_auctions_won_by_a_user_by_pages() throws Exception {
+        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
+        Event dummyEvent = DBFeeder.createDummyEvent();
+        User winner = DBFeeder.createDummyUser();
+
+        List<Auction> wonAuctions = new LinkedList<>();
+        for (int i = 0; i < 3; i++) {
+            wonAuctions.add(DBFeeder.createDummyAuction(dummyEvent.id, dummyEvent.ownerId, winner.id));
+        }
+        DBFeeder.createDummyAuction(dummyEvent.id, dummyEvent.ownerId); // No winner
+
+        List<Auction> firstPage = auctionDAO.getListByWinnerId(winner.id, new Page(0, 2));
+        assertEquals(2, firstPage.size());
+        assertAuctionListEquals(wonAuctions.subList(0, 2), firstPage);
+
+        List<Auction> secondPage = auctionDAO.getListByWinnerId(winner.id, new Page(firstPage.get(1).id, 2));
+        assertEquals(1, secondPage.size());
+        assertAuctionListEquals(wonAuctions.subList(2, 3), secondPage);
+
+        assertEquals(3, auctionDAO.getListByWinnerId(winner.id, Page.first()).size());
+    }
+
     @Test
     public void test_update_auction_winner_id() throws DAOException {
         AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
@@ -410,6 +473,77 @@ public class AuctionDBTest extends AbstractDBTest {
         assertNull(auctionDAO.getById(insertedAuction.id));
     }
 
+    @Test
+    public void test_auction_settlement_moves_credits_with_the_auction() throws DAOException {
+        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
+        UserDAO userDAO = UserDAOSQL.getInstance();
+        EventDAO eventDAO = EventDAOSQL.getInstance();
+
+        User owner = DummyGenerator.getDummyUser();
+        owner.credit = 10;
+        User insertedOwner = userDAO.create(owner);
+
+        User winner = DummyGenerator.getOtherDummyUser();
+        winner.credit = 100;
+        User insertedWinner = userDAO.create(winner);
+
+        Event event = DummyGenerator.getDummyEvent();
+        event.ownerId = insertedOwner.id;
+        Event insertedEvent = eventDAO.create(event);
+
+        Auction auction = DummyGenerator.getDummyAuction();
+        auction.eventId = insertedEvent.id;
+        auction.ownerId = insertedOwner.id;
+        Auction insertedAuction = auctionDAO.create(auction);
+
+        insertedAuction.status = Auction.FINISHED;
+        insertedAuction.winnerId = insertedWinner.id;
+        Map<Integer, Double> credits = new HashMap<>();
+        credits.put(insertedWinner.id, -40.0);
+        credits.put(insertedOwner.id, 36.0);
+        Auction settledAuction = auctionDAO.settle(insertedAuction, credits);
+
+        assertNotNull(settledAuction);
+        assertEquals(Auction.FINISHED, settledAuction.status);
+        assertEquals(insertedWinner.id, settledAuction.winnerId);
+        assertEquals(60, userDAO.getById(insertedWinner.id).credit, 0.0001);
+        assertEquals(46, userDAO.getById(insertedOwner.id).credit, 0.0001);
+    }
+
+    @Test
+    public void test_auction_settlement_crediting_missing_user_settles_nothing() throws DAOException {
+        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
+        UserDAO userDAO = UserDAOSQL.getInstance();
+        EventDAO eventDAO = EventDAOSQL.getInstance();
+
+        User owner = DummyGenerator.getDummyUser();
+        owner.credit = 10;
+        User insertedOwner = userDAO.create(owner);
+
+        Event event = DummyGenerator.getDummyEvent();
+        event.ownerId = insertedOwner.id;
+        Event insertedEvent = eventDAO.create(event);
+
+        Auction auction = DummyGenerator.getDummyAuction();
+        auction.eventId = insertedEvent.id;
+        auction.ownerId = insertedOwner.id;
+        Auction insertedAuction = auctionDAO.create(auction);
+
+        insertedAuction.status = Auction.FINISHED;
+        Map<Integer, Double> credits = new HashMap<>();
+        credits.put(insertedOwner.id, 36.0);
+        credits.put(insertedOwner.id + 1234, -40.0);
+        try {
+            auctionDAO.settle(insertedAuction, credits);
+            fail("Missing user was credited");
+        } catch (DAOException e) {
+            // Expected
+        }
+
+        assertEquals(10, userDAO.getById(insertedOwner.id).credit, 0.0001);
+        assertEquals(auction.status, auctionDAO.getById(insertedAuction.id).status);
+    }
+
     @Test
     public void test_delete_inexistent_auction() throws DAOException {
         AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
@@ -230,7 +230,7 @@ public class BidDBTest extends AbstractDBTest {
     public void test_returned_empty_list_when_there_are_not_bids_for_a_user() throws Exception {
         BidDAO bidDAO = BidDAOSQL.getInstance();
         User dummyUser = DBFeeder.createDummyUser();
-        List<Bid> bidList = bidDAO.getListByOwnerId(dummyUser.id);
+        List<Bid> bidList = bidDAO.getListByOwnerId(dummyUser.id, Page.first());
         assertEquals(0, bidList.size());
     }
 
@@ -261,13 +261,35 @@ public class BidDBTest extends AbstractDBTest {
            add(insertedOtherBid);
         }};
 
-        List<Bid> outputBidList = bidDAO.getListByOwnerId(dummyAuction.ownerId);
+        List<Bid> outputBidList = bidDAO.getListByOwnerId(dummyAuction.ownerId, Page.first());
         assertNotNull(outputBidList);
         assertEquals(expectedBidList.size(), outputBidList.size());
 
         assertBidListEquals(expectedBidList, outputBidList);
     }
 
+    @Test
+    public void test_list_of_bids_for_a_user_by_pages() throws Exception {
+        BidDAO bidDAO = BidDAOSQL.getInstance();
+        Bid insertedBid = DBFeeder.createDummyBid();
+
+        List<Bid> insertedBids = new LinkedList<>();
+        insertedBids.add(insertedBid);
+        for (int i = 0; i < 2; i++) {
+            insertedBids.add(DBFeeder.createOtherDummyBid(insertedBid.auctionId, insertedBid.ownerId, insertedBid.goodId));
+        }
+
+        List<Bid> firstPage = bidDAO.getListByOwnerId(insertedBid.ownerId, new Page(0, 2));
+        assertEquals(2, firstPage.size());
+        assertBidListEquals(insertedBids.subList(0, 2), firstPage);
+
+        List<Bid> secondPage = bidDAO.getListByOwnerId(insertedBid.ownerId, new Page(firstPage.get(1).id, 2));
+        assertEquals(1, secondPage.size());
+        assertBidListEquals(insertedBids.subList(2, 3), secondPage);
+
+        assertEquals(3, bidDAO.getListByOwnerId(insertedBid.ownerId, Page.first()).size());
+    }
+
     @Test
     public void test_returned_empty_list_when_there_are_not_bids_for_an_auction() throws Exception {
         GoodDAO goodDAO = GoodDAOSQL.getInstance();
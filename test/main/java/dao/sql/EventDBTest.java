@@ -3,6 +3,7 @@ package main.java.dao.sql;
 import main.java.dao.DAOException;
 import main.java.dao.EventDAO;
 import main.java.dao.NotFoundException;
+import main.java.dao.Page;
 import main.java.dao.UserDAO;
 import main.java.utils.DummyGenerator;
 import main.java.models.Event;
@@ -59,7 +60,7 @@ public class EventDBTest extends AbstractDBTest {
     @Test
     public void test_returned_empty_list_when_there_are_not_events() throws DAOException {
         EventDAO eventDAO = EventDAOSQL.getInstance();
-        List<Event> eventList = eventDAO.getList();
+        List<Event> eventList = eventDAO.getList(Page.first(), null, null);
         assertNotNull(eventList);
         assertEquals(0, eventList.size());
     }
@@ -85,13 +86,55 @@ public class EventDBTest extends AbstractDBTest {
             add(insertedEvent);
         }};
 
-        List<Event> outputEventList = eventDAO.getList();
+        List<Event> outputEventList = eventDAO.getList(Page.first(), null, null);
         assertNotNull(outputEventList);
         assertEquals(expectedEventList.size(), outputEventList.size());
 
         assertEventListEquals(expectedEventList, outputEventList);
     }
 
+    @Test
+    public void test_list_of_events_by_pages() throws DAOException {
+        EventDAO eventDAO = EventDAOSQL.getInstance();
+        User insertedOwner = UserDAOSQL.getInstance().create(DummyGenerator.getDummyUser());
+
+        List<Event> insertedEvents = new LinkedList<>();
+        for (int i = 0; i < 3; i++) {
+            Event event = DummyGenerator.getDummyEvent();
+            event.ownerId = insertedOwner.id;
+            insertedEvents.add(0, eventDAO.create(event)); // Newest first
+        }
+
+        List<Event> firstPage = eventDAO.getList(new Page(0, 2), null, null);
+        assertEquals(2, firstPage.size());
+        assertEventListEquals(insertedEvents.subList(0, 2), firstPage);
+
+        List<Event> secondPage = eventDAO.getList(new Page(firstPage.get(1).id, 2), null, null);
+        assertEquals(1, secondPage.size());
+        assertEventListEquals(insertedEvents.subList(2, 3), secondPage);
+    }
+
+    @Test
+    public void test_list_of_events_by_status_and_category() throws DAOException {
+        EventDAO eventDAO = EventDAOSQL.getInstance();
+        User insertedOwner = UserDAOSQL.getInstance().create(DummyGenerator.getDummyUser());
+
+        Event event = DummyGenerator.getDummyEvent();
+        event.ownerId = insertedOwner.id;
+        Event insertedEvent = eventDAO.create(event);
+
+        Event otherEvent = DummyGenerator.getOtherDummyEvent();
+        otherEvent.ownerId = insertedOwner.id;
+        eventDAO.create(otherEvent);
+
+        List<Event> byStatus = eventDAO.getList(Page.first(), event.status, null);
+        assertEquals(1, byStatus.size());
+        assertEventListEquals(new LinkedList<Event>() {{ add(insertedEvent); }}, byStatus);
+
+        assertEquals(2, eventDAO.getList(Page.first(), null, event.category).size());
+        assertEquals(0, eventDAO.getList(Page.first(), event.status, "OtherCategory").size());
+    }
+
     @Test
     public void test_event_update_name() throws DAOException, NotFoundException {
         EventDAO eventDAO = EventDAOSQL.getInstance();
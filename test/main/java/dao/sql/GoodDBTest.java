@@ -93,6 +93,27 @@ public class GoodDBTest extends AbstractDBTest {
         assertGoodListEquals(expectedGoodList, outputGoodList);
     }
 
+    @Test
+    public void test_list_of_goods_for_an_auction_by_pages() throws Exception {
+        GoodDAO goodDAO = GoodDAOSQL.getInstance();
+        Auction dummyAuction = DBFeeder.createDummyAuction();
+
+        List<Good> insertedGoods = new LinkedList<>();
+        insertedGoods.add(DBFeeder.createDummyGood(dummyAuction.id));
+        insertedGoods.add(DBFeeder.createOtherDummyGood(dummyAuction.id));
+        insertedGoods.add(DBFeeder.createThirdDummyGood(dummyAuction.id));
+
+        List<Good> firstPage = goodDAO.getListByAuctionId(dummyAuction.id, new Page(0, 2));
+        assertEquals(2, firstPage.size());
+        assertGoodListEquals(insertedGoods.subList(0, 2), firstPage);
+
+        List<Good> secondPage = goodDAO.getListByAuctionId(dummyAuction.id, new Page(firstPage.get(1).id, 2));
+        assertEquals(1, secondPage.size());
+        assertGoodListEquals(insertedGoods.subList(2, 3), secondPage);
+
+        assertEquals(3, goodDAO.getListByAuctionId(dummyAuction.id, Page.first()).size());
+    }
+
     @Test
     public void test_good_update_name() throws DAOException {
 
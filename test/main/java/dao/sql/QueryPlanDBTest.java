@@ -0,0 +1,224 @@
+package main.java.dao.sql;
+
+import main.java.EmbeddedPostgresWrapper;
+import main.java.dao.*;
+import main.java.db.Source;
+import main.java.models.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Every query the DAOs run is explained, with its actual parameters, against tables seeded large enough for the
+ * planner to prefer indexes. A sequential scan over any of them means a missing index.
+ */
+public class QueryPlanDBTest extends AbstractDBTest {
+
+    private static final int USERS = 1000;
+    private static final int EVENTS = 2000;
+    private static final int AUCTIONS = 5000;
+    private static final int GOODS = 10000;
+    private static final int BIDS = 50000;
+
+    private static final Set<String> LARGE_TABLES =
+            new HashSet<>(Arrays.asList("user", "event", "auction", "good", "bid"));
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on \"?(\\w+)");
+
+    private static final String[] SEED = {
+            "INSERT INTO public.user (name, password, email, credit) " +
+                    "SELECT 'User' || i, 'Password', 'user' || i || '@keibai.com', 1000 " +
+                    "FROM generate_series(1, " + USERS + ") i",
+            "INSERT INTO public.event (owner, name, auction_type, category, status) " +
+                    "SELECT 1 + i % " + USERS + ", 'Event' || i, 'English', 'Category' || i % 10, " +
+                    "CASE WHEN i % 20 = 0 THEN 'IN_PROGRESS' ELSE 'FINISHED' END " +
+                    "FROM generate_series(1, " + EVENTS + ") i",
+            // One auction in 100 in progress, the rest finished and won.
+            "INSERT INTO public.auction (event, winner, owner, name, starting_price, status, max_bid) " +
+                    "SELECT 1 + i % " + EVENTS + ", " +
+                    "CASE WHEN i % 100 = 0 THEN NULL ELSE 1 + i % " + USERS + " END, " +
+                    "1 + (i * 7) % " + USERS + ", 'Auction' || i, 1.0, " +
+                    "CASE WHEN i % 100 = 0 THEN 'IN_PROGRESS' ELSE 'FINISHED' END, 10.0 " +
+                    "FROM generate_series(1, " + AUCTIONS + ") i",
+            "INSERT INTO public.good (name, auction) " +
+                    "SELECT 'Good' || i, 1 + i % " + AUCTIONS + " " +
+                    "FROM generate_series(1, " + GOODS + ") i",
+            "INSERT INTO public.bid (auction, owner, amount, good) " +
+                    "SELECT 1 + i % " + AUCTIONS + ", 1 + (i * 13) % " + USERS + ", i, 1 + i % " + GOODS + " " +
+                    "FROM generate_series(1, " + BIDS + ") i",
+            "ANALYZE",
+    };
+
+    private final Map<String, String> plans = new LinkedHashMap<>(); // SQL <-> Plan
+
+    @Before
+    public void seedAndExplain() throws SQLException {
+        Connection connection = EmbeddedPostgresWrapper.getInstance().getConnection();
+        try (Statement statement = connection.createStatement()) {
+            for (String sql: SEED) {
+                statement.execute(sql);
+            }
+        }
+        Source.getInstance().setConnection(explaining(connection));
+    }
+
+    @After
+    public void stopExplaining() throws SQLException {
+        Source.getInstance().setConnection(EmbeddedPostgresWrapper.getInstance().getConnection());
+    }
+
+    @Test
+    public void user_queries_should_use_indexes() throws DAOException {
+        UserDAO userDAO = UserDAOSQL.getInstance();
+
+        User user = userDAO.getById(USERS / 2);
+        userDAO.getByEmail(user.email);
+        userDAO.update(user);
+        userDAO.addCredit(user.id, -1);
+        user.email = "new@keibai.com";
+        userDAO.delete(userDAO.create(user).id);
+
+        assertExplained(6);
+    }
+
+    @Test
+    public void event_queries_should_use_indexes() throws DAOException {
+        EventDAO eventDAO = EventDAOSQL.getInstance();
+
+        Event event = eventDAO.getById(EVENTS / 2);
+        eventDAO.getList(Page.first(), null, null);
+        eventDAO.getList(new Page(EVENTS / 2, Page.MAX_LIMIT), Event.IN_PROGRESS, null);
+        eventDAO.getList(Page.first(), null, "Category1");
+        eventDAO.update(event);
+        eventDAO.delete(eventDAO.create(event).id);
+
+        assertExplained(7);
+    }
+
+    @Test
+    public void auction_queries_should_use_indexes() throws DAOException {
+        AuctionDAO auctionDAO = AuctionDAOSQL.getInstance();
+
+        Auction auction = auctionDAO.getById(AUCTIONS / 2);
+        auctionDAO.getListByEventId(EVENTS / 2);
+        auctionDAO.getListByEventId(EVENTS / 2, null, Page.first());
+        auctionDAO.getListByEventId(EVENTS / 2, Auction.FINISHED, new Page(AUCTIONS / 2, Page.MAX_LIMIT));
+        auctionDAO.getListByWinnerId(USERS / 2, Page.first());
+        auctionDAO.getAuctionWhereUserIsBidding(USERS / 2);
+        auctionDAO.update(auction);
+        auctionDAO.updateMaxBid(auction.id, 20.0);
+        auctionDAO.settle(auction, Collections.singletonMap(auction.ownerId, 1.0));
+        auctionDAO.delete(auctionDAO.create(auction).id);
+
+        assertExplained(11);
+    }
+
+    @Test
+    public void good_queries_should_use_indexes() throws DAOException {
+        GoodDAO goodDAO = GoodDAOSQL.getInstance();
+
+        Good good = goodDAO.getById(GOODS / 2);
+        goodDAO.getListByAuctionId(AUCTIONS / 2);
+        goodDAO.getListByAuctionId(AUCTIONS / 2, Page.first());
+        goodDAO.update(good);
+        goodDAO.delete(goodDAO.create(good).id);
+
+        assertExplained(6);
+    }
+
+    @Test
+    public void bid_queries_should_use_indexes() throws DAOException {
+        BidDAO bidDAO = BidDAOSQL.getInstance();
+
+        Bid bid = bidDAO.getById(BIDS / 2);
+        bidDAO.getListByOwnerId(USERS / 2, new Page(BIDS / 2, Page.MAX_LIMIT));
+        bidDAO.getListByAuctionId(AUCTIONS / 2);
+        bidDAO.update(bid);
+        bidDAO.delete(bidDAO.create(bid).id);
+
+        assertExplained(6);
+    }
+
+    private void assertExplained(int queries) {
+        assertEquals(plans.keySet().toString(), queries, plans.size());
+
+        for (Map.Entry<String, String> plan: plans.entrySet()) {
+            Matcher scan = SEQ_SCAN.matcher(plan.getValue());
+            while (scan.find()) {
+                assertFalse("Sequential scan in " + plan.getKey() + "\n" + plan.getValue(),
+                        LARGE_TABLES.contains(scan.group(1)));
+            }
+        }
+    }
+
+    /**
+     * Connection whose prepared statements are explained, with the parameters they were given, right before they run.
+     */
+    private Connection explaining(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            PreparedStatement statement = (PreparedStatement) invoke(connection, method, args);
+                            return explained(connection, (String) args[0], statement);
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                    }
+                    return invoke(connection, method, args);
+                });
+    }
+
+    private PreparedStatement explained(Connection connection, String sql, PreparedStatement statement) {
+        List<Object[]> parameters = new ArrayList<>(); // Method, args of every set call so far.
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        parameters.add(new Object[]{method, args});
+                    } else if (name.equals("clearParameters")) {
+                        parameters.clear();
+                    } else if (name.equals("executeQuery") || name.equals("executeUpdate")
+                            || name.equals("execute") || name.equals("addBatch")) {
+                        explain(connection, sql, parameters);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private void explain(Connection connection, String sql, List<Object[]> parameters) throws Throwable {
+        if (plans.containsKey(sql)) {
+            return;
+        }
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (Object[] parameter: parameters) {
+                invoke(explain, (Method) parameter[0], (Object[]) parameter[1]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            plans.put(sql, plan.toString());
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -106,6 +106,42 @@ public class UserDBTest extends AbstractDBTest {
         assertNull(modifiedUser);
     }
 
+    @Test
+    public void test_credit_is_added_in_place() throws DAOException {
+        UserDAO userDAO = UserDAOSQL.getInstance();
+
+        User user = DummyGenerator.getDummyUser();
+        user.credit = 10;
+        User insertedUser = userDAO.create(user);
+
+        User updatedUser = userDAO.addCredit(insertedUser.id, 5);
+        assertNotNull(updatedUser);
+        assertEquals(15, updatedUser.credit, 0.0001);
+
+        updatedUser = userDAO.addCredit(insertedUser.id, -15);
+        assertNotNull(updatedUser);
+        assertEquals(0, updatedUser.credit, 0.0001);
+        assertEquals(updatedUser, userDAO.getById(insertedUser.id));
+    }
+
+    @Test
+    public void test_credit_is_not_taken_below_zero() throws DAOException {
+        UserDAO userDAO = UserDAOSQL.getInstance();
+
+        User user = DummyGenerator.getDummyUser();
+        user.credit = 10;
+        User insertedUser = userDAO.create(user);
+
+        assertNull(userDAO.addCredit(insertedUser.id, -10.5));
+        assertEquals(10, userDAO.getById(insertedUser.id).credit, 0.0001);
+    }
+
+    @Test
+    public void test_credit_of_inexistent_user() throws DAOException {
+        UserDAO userDAO = UserDAOSQL.getInstance();
+        assertNull(userDAO.addCredit(24, 5));
+    }
+
     @Test
     public void test_delete_existent_user() throws DAOException {
         UserDAO userDAO = UserDAOSQL.getInstance();
@@ -0,0 +1,173 @@
+package main.java.db;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ConnectionPoolTest {
+
+    DataSource dataSource;
+    ConnectionPool pool;
+
+    @Before
+    public void setup() throws SQLException {
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.unwrap(Connection.class)).thenReturn(connection);
+            when(connection.prepareStatement(anyString())).thenAnswer(i -> mock(PreparedStatement.class));
+            return connection;
+        });
+        pool = new ConnectionPool(dataSource, 2, 50, 60 * 1000, 0);
+    }
+
+    @After
+    public void teardown() {
+        pool.close();
+    }
+
+    @Test
+    public void closed_connection_should_be_reused() throws SQLException {
+        Connection first = pool.borrow();
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+        Connection second = pool.borrow();
+
+        assertSame(physical, second.unwrap(Connection.class));
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getLeasedCount());
+    }
+
+    @Test
+    public void nested_borrow_should_share_the_thread_connection() throws SQLException {
+        Connection outer = pool.borrow();
+        Connection inner = pool.borrow();
+        assertSame(outer.unwrap(Connection.class), inner.unwrap(Connection.class));
+
+        inner.close();
+        inner.close();
+        assertEquals(1, pool.getLeasedCount());
+        outer.close();
+        assertEquals(0, pool.getLeasedCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    public void borrow_should_time_out_when_pool_is_exhausted() throws Exception {
+        borrowFromAnotherThread();
+        pool.borrow();
+
+        try {
+            borrowFromAnotherThread();
+            fail("Pool should be exhausted");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+            assertEquals(1, pool.getTimeoutCount());
+        }
+    }
+
+    @Test
+    public void invalid_idle_connection_should_be_discarded() throws Exception {
+        Connection first = pool.borrow();
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+
+        // Pretend that it has been idle for long, so that it has to be validated.
+        Thread.sleep(600);
+        when(physical.isValid(anyInt())).thenReturn(false);
+
+        Connection second = pool.borrow();
+        assertNotSame(physical, second.unwrap(Connection.class));
+        assertEquals(1, pool.getEvictedCount());
+        verify(physical).close();
+    }
+
+    @Test
+    public void statements_should_outlive_the_lease() throws SQLException {
+        Connection first = pool.borrow();
+        PreparedStatement statement = first.unwrap(StatementCache.class).prepare("SELECT 1");
+        first.close();
+
+        Connection second = pool.borrow();
+        assertSame(statement, second.unwrap(StatementCache.class).prepare("SELECT 1"));
+    }
+
+    @Test
+    public void discarded_connection_should_close_its_statements() throws SQLException {
+        Connection connection = pool.borrow();
+        Connection physical = connection.unwrap(Connection.class);
+        StatementCache statements = connection.unwrap(StatementCache.class);
+        PreparedStatement statement = statements.prepare("SELECT 1");
+        connection.close();
+
+        pool.close();
+
+        verify(statement).close();
+        verify(physical).close();
+        assertEquals(0, statements.size());
+    }
+
+    @Test(expected = SQLException.class)
+    public void returned_connection_should_not_be_usable() throws SQLException {
+        Connection connection = pool.borrow();
+        connection.close();
+        connection.createStatement();
+    }
+
+    @Test
+    public void late_close_should_not_return_the_next_lease() throws Exception {
+        Connection stale = pool.borrow();
+        stale.close();
+        Connection current = pool.borrow();
+
+        stale.close();
+        assertEquals(1, pool.getLeasedCount());
+        assertFalse(current.isClosed());
+        assertTrue(stale.isClosed());
+
+        current.close();
+        assertEquals(0, pool.getLeasedCount());
+    }
+
+    @Test(expected = SQLException.class)
+    public void stale_connection_should_not_reach_the_next_lease() throws SQLException {
+        Connection stale = pool.borrow();
+        stale.close();
+        pool.borrow();
+
+        stale.createStatement();
+    }
+
+    @Test
+    public void pending_transaction_should_be_rolled_back_on_return() throws SQLException {
+        Connection connection = pool.borrow();
+        Connection physical = connection.unwrap(Connection.class);
+        connection.setAutoCommit(false);
+        when(physical.getAutoCommit()).thenReturn(false);
+        connection.close();
+
+        verify(physical).rollback();
+        verify(physical).setAutoCommit(true);
+    }
+
+    private Connection borrowFromAnotherThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(() -> pool.borrow()).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
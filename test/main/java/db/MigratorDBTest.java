@@ -0,0 +1,117 @@
+package main.java.db;
+
+import main.java.dao.sql.AbstractDBTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.naming.NamingException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class MigratorDBTest extends AbstractDBTest {
+
+    private static final String SCHEMA = "migrator_test";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Connection connection;
+    private Migrator migrator;
+
+    @Before
+    public void createSchema() throws SQLException, NamingException {
+        connection = Source.getInstance().getConnection();
+        execute("CREATE SCHEMA " + SCHEMA);
+        migrator = new Migrator(connection, SCHEMA);
+    }
+
+    @After
+    public void dropSchema() throws SQLException {
+        execute("DROP SCHEMA " + SCHEMA + " CASCADE");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int count(String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM " + SCHEMA + "." + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private void write(String name, String sql) throws IOException {
+        Files.write(new File(folder.getRoot(), name).toPath(), sql.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void only_pending_migrations_should_run() throws Exception {
+        write("v1.0.sql", "CREATE TABLE " + SCHEMA + ".thing (id INTEGER);");
+        assertEquals(Collections.singletonList("1.0"), migrator.migrate(folder.getRoot()));
+
+        write("v1.1.sql", "INSERT INTO " + SCHEMA + ".thing VALUES (1);\n" +
+                "-- Comments and several statements are fine\n" +
+                "INSERT INTO " + SCHEMA + ".thing VALUES (2);");
+        assertEquals(Collections.singletonList("1.1"), migrator.migrate(folder.getRoot()));
+        assertEquals(Collections.emptyList(), migrator.migrate(folder.getRoot()));
+
+        assertEquals(2, count("thing"));
+        assertEquals(2, migrator.getApplied().size());
+    }
+
+    @Test
+    public void failed_migration_should_be_rolled_back_and_stop_the_rest() throws Exception {
+        write("v1.0.sql", "CREATE TABLE " + SCHEMA + ".thing (id INTEGER);");
+        write("v1.1.sql", "INSERT INTO " + SCHEMA + ".thing VALUES (1);\n" +
+                "INSERT INTO " + SCHEMA + ".missing VALUES (1);");
+        write("v1.2.sql", "INSERT INTO " + SCHEMA + ".thing VALUES (2);");
+
+        try {
+            migrator.migrate(folder.getRoot());
+            fail("Migration v1.1 should fail");
+        } catch (SQLException e) {
+            // Expected
+        }
+
+        assertEquals(0, count("thing"));
+        assertEquals(Collections.singleton("1.0"), migrator.getApplied().keySet());
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test(expected = SQLException.class)
+    public void migration_changed_after_applied_should_fail() throws Exception {
+        write("v1.0.sql", "CREATE TABLE " + SCHEMA + ".thing (id INTEGER);");
+        migrator.migrate(folder.getRoot());
+
+        write("v1.0.sql", "CREATE TABLE " + SCHEMA + ".thing (id BIGINT);");
+        migrator.migrate(folder.getRoot());
+    }
+
+    @Test
+    public void baseline_should_record_without_running() throws Exception {
+        write("v1.0.sql", "CREATE TABLE " + SCHEMA + ".thing (id INTEGER);");
+        write("v1.1.sql", "INSERT INTO " + SCHEMA + ".thing VALUES (1);");
+        execute("CREATE TABLE " + SCHEMA + ".thing (id INTEGER)");
+
+        assertEquals(Collections.singletonList("1.0"), migrator.baseline(folder.getRoot(), "1.0"));
+        assertEquals(Arrays.asList("1.1"), migrator.migrate(folder.getRoot()));
+        assertEquals(1, count("thing"));
+    }
+}
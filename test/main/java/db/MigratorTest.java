@@ -0,0 +1,78 @@
+package main.java.db;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MigratorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private void write(String name, String sql) throws IOException {
+        Files.write(new File(folder.getRoot(), name).toPath(), sql.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void migrations_should_be_in_version_order() throws IOException {
+        write("v1.10.sql", "SELECT 10;");
+        write("v1.2.sql", "SELECT 2;");
+        write("v1.9.sql", "SELECT 9;");
+        write("v2.0.sql", "SELECT 20;");
+
+        List<String> versions = new ArrayList<>();
+        for (Migrator.Migration migration: Migrator.scan(folder.getRoot())) {
+            versions.add(migration.version);
+        }
+
+        assertEquals(Arrays.asList("1.2", "1.9", "1.10", "2.0"), versions);
+    }
+
+    @Test
+    public void other_files_should_not_be_migrations() throws IOException {
+        write("v1.0.sql", "SELECT 1;");
+        write("README.md", "# DB Updates");
+        write("v1.1.sql.bak", "SELECT 1;");
+        folder.newFolder("__reset__");
+
+        assertEquals(1, Migrator.scan(folder.getRoot()).size());
+    }
+
+    @Test
+    public void checksum_should_not_depend_on_line_endings() throws IOException {
+        write("v1.0.sql", "SELECT 1;\nSELECT 2;\n");
+        write("v1.1.sql", "SELECT 1;\r\nSELECT 2;\r\n");
+        write("v1.2.sql", "SELECT 1;\nSELECT 3;\n");
+
+        List<Migrator.Migration> migrations = Migrator.scan(folder.getRoot());
+
+        assertEquals(migrations.get(0).checksum, migrations.get(1).checksum);
+        assertNotEquals(migrations.get(0).checksum, migrations.get(2).checksum);
+        assertEquals(64, migrations.get(0).checksum.length());
+    }
+
+    @Test
+    public void versions_should_compare_part_by_part() {
+        assertTrue(Migrator.compareVersions("1.10", "1.9") > 0);
+        assertTrue(Migrator.compareVersions("1.0", "1.0.1") < 0);
+        assertEquals(0, Migrator.compareVersions("1.0", "1.0.0"));
+    }
+
+    @Test
+    public void repo_migrations_should_be_found() throws IOException {
+        List<Migrator.Migration> migrations = Migrator.scan(new File("db"));
+
+        assertEquals("1.0", migrations.get(0).version);
+        assertTrue(migrations.size() >= 7);
+    }
+}
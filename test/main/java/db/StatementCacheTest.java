@@ -0,0 +1,64 @@
+package main.java.db;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class StatementCacheTest {
+
+    Connection connection;
+    StatementCache statements;
+
+    @Before
+    public void setup() throws SQLException {
+        connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        statements = new StatementCache(connection);
+    }
+
+    @Test
+    public void statement_should_be_reused() throws SQLException {
+        PreparedStatement first = statements.prepare("SELECT 1");
+        PreparedStatement second = statements.prepare("SELECT 1");
+
+        assertSame(first, second);
+        verify(connection, times(1)).prepareStatement("SELECT 1");
+    }
+
+    @Test
+    public void closed_statement_should_be_prepared_again() throws SQLException {
+        PreparedStatement first = statements.prepare("SELECT 1");
+        when(first.isClosed()).thenReturn(true);
+
+        assertNotSame(first, statements.prepare("SELECT 1"));
+    }
+
+    @Test
+    public void least_recently_used_statement_should_be_closed_past_max_size() throws SQLException {
+        PreparedStatement eldest = statements.prepare("SELECT 0");
+        for (int i = 1; i <= StatementCache.MAX_SIZE; i++) {
+            statements.prepare("SELECT " + i);
+        }
+
+        verify(eldest).close();
+        assertEquals(StatementCache.MAX_SIZE, statements.size());
+    }
+
+    @Test
+    public void close_should_close_every_statement() throws SQLException {
+        PreparedStatement first = statements.prepare("SELECT 1");
+        PreparedStatement second = statements.prepare("SELECT 2");
+
+        statements.close();
+
+        verify(first).close();
+        verify(second).close();
+        assertEquals(0, statements.size());
+    }
+}
@@ -0,0 +1,116 @@
+package main.java.gson;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import main.java.models.Auction;
+import main.java.models.Bid;
+import main.java.models.Event;
+import main.java.models.Good;
+import main.java.models.User;
+import main.java.models.meta.BodyWS;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class ModelTypeAdapterTest {
+
+    // What the models used to go through.
+    private final Gson reflectiveGson = new GsonBuilder().registerTypeAdapter(Date.class, new GsonUTCDateAdapter()).create();
+    private final Gson gson = new BetterGson().newInstance();
+
+    @Test
+    public void should_be_shared() {
+        assertSame(gson, new BetterGson().newInstance());
+    }
+
+    @Test
+    public void should_write_as_reflection_does() {
+        Timestamp timestamp = new Timestamp(1500000000123L);
+
+        Bid bid = new Bid();
+        bid.id = 1;
+        bid.amount = 10.5;
+        bid.createdAt = timestamp;
+        bid.auctionId = 2;
+        bid.goodId = 3;
+        bid.ownerId = 4;
+
+        Auction auction = new Auction();
+        auction.id = 5;
+        auction.name = "Auction \"quoted\"";
+        auction.startingPrice = 1.0;
+        auction.startTime = timestamp;
+        auction.status = Auction.IN_PROGRESS;
+        auction.maxBid = 1e21;
+
+        User user = new User();
+        user.id = 6;
+        user.name = "Name";
+        user.email = "name@example.com";
+        user.credit = -0.0;
+        user.updatedAt = timestamp;
+
+        Event event = new Event();
+        event.name = "Event";
+        event.location = "Barcelona \u2603";
+        event.auctionType = Event.COMBINATORIAL;
+        event.ownerId = 7;
+
+        Good good = new Good();
+        good.name = "Good";
+        good.auctionId = 8;
+
+        BodyWS body = new BodyWS();
+        body.type = "AuctionBid";
+        body.json = "{\"a\":1}";
+
+        for (Object model: new Object[]{ bid, auction, user, event, good, body, new Bid(), new User() }) {
+            assertEquals(reflectiveGson.toJson(model), gson.toJson(model));
+        }
+        assertEquals(reflectiveGson.toJson(new Bid[]{ bid, null, bid }), gson.toJson(new Bid[]{ bid, null, bid }));
+        assertEquals(reflectiveGson.toJson(new Object[]{ auction, event }), gson.toJson(new Object[]{ auction, event }));
+    }
+
+    @Test
+    public void should_read_as_reflection_does() {
+        String[] jsons = {
+                "{\"amount\":10.5,\"createdAt\":\"2017-07-14T02:40:00.123Z\",\"auctionId\":2,\"goodId\":3,\"ownerId\":4,\"id\":1}",
+                "{\"amount\":\"7\",\"auctionId\":\"2\",\"goodId\":3.0,\"unknown\":{\"a\":[1,2]},\"ownerId\":null}",
+                "{}",
+        };
+        for (String json: jsons) {
+            assertEquals(reflectiveGson.fromJson(json, Bid.class), gson.fromJson(json, Bid.class));
+        }
+
+        String auctionJson = "{\"name\":true,\"startingPrice\":5,\"startTime\":null,\"eventId\":3,\"status\":\"PENDING\",\"id\":9}";
+        assertEquals(reflectiveGson.fromJson(auctionJson, Auction.class), gson.fromJson(auctionJson, Auction.class));
+
+        String userJson = "{\"name\":\"Name\",\"lastName\":\"Last\",\"password\":\"secret\",\"email\":\"a@b.c\",\"credit\":\"12.5\",\"updatedAt\":\"2017-07-14T02:40:00.123Z\"}";
+        assertEquals(reflectiveGson.fromJson(userJson, User.class), gson.fromJson(userJson, User.class));
+
+        String bidsJson = "[{\"amount\":1.5,\"auctionId\":1,\"goodId\":2},null]";
+        assertArrayEquals(reflectiveGson.fromJson(bidsJson, Bid[].class), gson.fromJson(bidsJson, Bid[].class));
+
+        assertNull(gson.fromJson("null", Good.class));
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void invalid_number_should_be_a_syntax_error() {
+        gson.fromJson("{\"auctionId\":1.5}", Bid.class);
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void invalid_date_should_be_a_parse_error() {
+        gson.fromJson("{\"createdAt\":\"yesterday\"}", Bid.class);
+    }
+
+    @Test(expected = JsonSyntaxException.class)
+    public void non_object_should_be_a_syntax_error() {
+        gson.fromJson("[1]", Event.class);
+    }
+}
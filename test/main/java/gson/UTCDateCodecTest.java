@@ -0,0 +1,62 @@
+package main.java.gson;
+
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class UTCDateCodecTest {
+
+    // What the dates used to go through.
+    private static DateFormat simpleDateFormat() {
+        DateFormat dateFormat = new SimpleDateFormat(UTCDateCodec.PATTERN, Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return dateFormat;
+    }
+
+    @Test
+    public void should_format_as_simple_date_format() {
+        DateFormat dateFormat = simpleDateFormat();
+        Random random = new Random(42);
+        long[] edges = { 0, -1, 1, 951782400000L, 951868799999L, 253402300799999L, 253402300800000L,
+                -12219292800000L, -12219292800001L, Long.MAX_VALUE / 1000 };
+
+        for (long millis: edges) {
+            assertEquals(dateFormat.format(new Date(millis)), UTCDateCodec.format(millis));
+        }
+        for (int i = 0; i < 100000; i++) {
+            long millis = (long) (random.nextDouble() * 600000000000000L) - 300000000000000L;
+            assertEquals(dateFormat.format(new Date(millis)), UTCDateCodec.format(millis));
+        }
+    }
+
+    @Test
+    public void should_parse_as_simple_date_format() throws ParseException {
+        DateFormat dateFormat = simpleDateFormat();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            long millis = (long) (random.nextDouble() * 600000000000000L) - 300000000000000L;
+            String text = dateFormat.format(new Date(millis));
+            assertEquals(dateFormat.parse(text), UTCDateCodec.parse(text));
+        }
+
+        String[] lenient = { "2017-7-1T1:2:3.4Z", "2017-02-30T00:00:00.000Z", "2016-02-29T23:59:59.999Z",
+                "2017-07-14T25:00:00.000Z", "2017-07-14T02:40:00.123Zextra", "1500-01-01T00:00:00.000Z" };
+        for (String text: lenient) {
+            assertEquals(text, dateFormat.parse(text), UTCDateCodec.parse(text));
+        }
+    }
+
+    @Test(expected = ParseException.class)
+    public void invalid_date_should_not_be_parsed() throws ParseException {
+        UTCDateCodec.parse("2017/07/14 02:40:00");
+    }
+}
@@ -0,0 +1,98 @@
+package main.java.live;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class AuctionCloseQueueTest {
+
+    @Test
+    public void close_should_go_through_every_state() {
+        AuctionCloseQueue closes = new AuctionCloseQueue(Runnable::run, 1);
+        List<AuctionCloseQueue.State> states = new ArrayList<>();
+
+        assertTrue(closes.submit(1, states::add, () -> {
+            assertEquals(AuctionCloseQueue.State.QUEUED, closes.getState(1));
+            closes.setState(1, AuctionCloseQueue.State.SOLVING);
+            closes.setState(1, AuctionCloseQueue.State.SETTLING);
+        }));
+
+        assertEquals(Arrays.asList(AuctionCloseQueue.State.QUEUED, AuctionCloseQueue.State.SOLVING,
+                AuctionCloseQueue.State.SETTLING, AuctionCloseQueue.State.DONE), states);
+        assertNull(closes.getState(1));
+        assertEquals(0, closes.getPending());
+    }
+
+    @Test
+    public void failed_close_should_be_done_too() {
+        AuctionCloseQueue closes = new AuctionCloseQueue(Runnable::run, 1);
+        List<AuctionCloseQueue.State> states = new ArrayList<>();
+
+        try {
+            closes.submit(1, states::add, () -> {
+                throw new IllegalStateException("Down");
+            });
+            fail("Direct executor should throw");
+        } catch (IllegalStateException e) {
+            assertEquals(AuctionCloseQueue.State.DONE, states.get(states.size() - 1));
+            assertNull(closes.getState(1));
+        }
+    }
+
+    @Test
+    public void auction_should_be_closed_once_at_a_time() {
+        QueuedExecutor pool = new QueuedExecutor();
+        AuctionCloseQueue closes = new AuctionCloseQueue(pool, 10);
+
+        assertTrue(closes.submit(1, state -> {}, () -> {}));
+        assertFalse(closes.submit(1, state -> {}, () -> {}));
+        assertTrue(closes.submit(2, state -> {}, () -> {}));
+        assertEquals(AuctionCloseQueue.State.QUEUED, closes.getState(1));
+
+        pool.runPending();
+        assertTrue(closes.submit(1, state -> {}, () -> {}));
+    }
+
+    @Test
+    public void closes_past_the_bound_should_be_refused() {
+        QueuedExecutor pool = new QueuedExecutor();
+        AuctionCloseQueue closes = new AuctionCloseQueue(pool, 2);
+        List<AuctionCloseQueue.State> refused = new ArrayList<>();
+
+        assertTrue(closes.submit(1, state -> {}, () -> {}));
+        assertTrue(closes.submit(2, state -> {}, () -> {}));
+        assertFalse(closes.submit(3, refused::add, () -> {}));
+        assertTrue(refused.isEmpty());
+        assertNull(closes.getState(3));
+        assertEquals(2, closes.getPending());
+
+        pool.runPending();
+        assertEquals(0, closes.getPending());
+        assertTrue(closes.submit(3, state -> {}, () -> {}));
+    }
+
+    /**
+     * Holds the tasks until told to run them.
+     */
+    private static class QueuedExecutor implements Executor {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runPending() {
+            for (Runnable task: tasks) {
+                task.run();
+            }
+            tasks.clear();
+        }
+    }
+}
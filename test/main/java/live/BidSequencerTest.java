@@ -0,0 +1,91 @@
+package main.java.live;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BidSequencerTest {
+
+    ExecutorService pool;
+    BidSequencer sequencer;
+
+    @Before
+    public void setup() {
+        pool = Executors.newFixedThreadPool(4);
+        sequencer = new BidSequencer(pool);
+    }
+
+    @After
+    public void teardown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void tasks_of_the_same_auction_should_run_one_at_a_time_in_order() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        List<Integer> order = new ArrayList<>();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            results.add(sequencer.submit(1, () -> {
+                boolean alone = running.incrementAndGet() == 1;
+                order.add(n);
+                running.decrementAndGet();
+                return alone;
+            }));
+        }
+
+        for (CompletableFuture<Boolean> result: results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+        assertEquals(1000, sequencer.getStats(1).getProcessedCount());
+        assertEquals(0, sequencer.getStats(1).getBacklog());
+    }
+
+    @Test
+    public void different_auctions_should_run_in_parallel() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = sequencer.submit(1, () -> {
+            bothRunning.countDown();
+            return bothRunning.await(5, TimeUnit.SECONDS);
+        });
+        CompletableFuture<Boolean> second = sequencer.submit(2, () -> {
+            bothRunning.countDown();
+            return bothRunning.await(5, TimeUnit.SECONDS);
+        });
+
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failing_task_should_not_stop_the_auction() throws Exception {
+        CompletableFuture<Object> failed = sequencer.submit(1, () -> {
+            throw new IllegalStateException("Boom");
+        });
+        CompletableFuture<String> next = sequencer.submit(1, () -> "next");
+
+        assertEquals("next", next.get(5, TimeUnit.SECONDS));
+        try {
+            failed.get();
+            fail("Task should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package main.java.live;
+
+import main.java.combinatorial.KAuctionResult;
+import main.java.dao.AuctionDAO;
+import main.java.dao.BidDAO;
+import main.java.dao.DAOException;
+import main.java.dao.EventDAO;
+import main.java.dao.GoodDAO;
+import main.java.models.Auction;
+import main.java.models.Bid;
+import main.java.models.Event;
+import main.java.models.Good;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class LiveAuctionEngineTest {
+
+    AuctionDAO auctionDAO;
+    EventDAO eventDAO;
+    BidDAO bidDAO;
+    GoodDAO goodDAO;
+    LiveAuctionEngine engine;
+
+    Auction auction;
+
+    @Before
+    public void setup() throws DAOException {
+        auctionDAO = mock(AuctionDAO.class);
+        eventDAO = mock(EventDAO.class);
+        bidDAO = mock(BidDAO.class);
+        goodDAO = mock(GoodDAO.class);
+
+        auction = new Auction();
+        auction.id = 1;
+        auction.eventId = 2;
+        auction.startingPrice = 1.0;
+        auction.status = Auction.IN_PROGRESS;
+        Event event = new Event();
+        event.id = 2;
+        event.auctionType = Event.ENGLISH;
+        Good good = new Good();
+        good.id = 3;
+
+        when(auctionDAO.getById(1)).thenReturn(auction);
+        when(eventDAO.getById(2)).thenReturn(event);
+        when(bidDAO.getListByAuctionId(1)).thenReturn(Arrays.asList(bid(7, 5.0), bid(8, 10.0)));
+        when(goodDAO.getListByAuctionId(1)).thenReturn(Collections.singletonList(good));
+        when(bidDAO.create(any(Bid.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        engine = new LiveAuctionEngine(auctionDAO, eventDAO, bidDAO, goodDAO, Runnable::run, Runnable::run);
+    }
+
+    @Test
+    public void in_progress_auction_should_be_loaded_once() throws DAOException {
+        LiveAuction first = engine.get(1);
+        LiveAuction second = engine.get(1);
+
+        assertSame(first, second);
+        assertTrue(first.isLive());
+        assertEquals(10.0, first.getMaxBid().amount, 0.0);
+        assertTrue(first.hasBidder(7));
+        assertTrue(engine.goodExists(first, 3));
+        verify(auctionDAO, times(1)).getById(1);
+        verify(bidDAO, times(1)).getListByAuctionId(1);
+        verify(goodDAO, never()).getById(3);
+    }
+
+    @Test
+    public void not_in_progress_auction_should_not_be_kept() throws DAOException {
+        auction.status = Auction.ACCEPTED;
+
+        LiveAuction liveAuction = engine.get(1);
+
+        assertFalse(liveAuction.isLive());
+        assertEquals(0, engine.size());
+        verify(bidDAO, never()).getListByAuctionId(1);
+    }
+
+    @Test
+    public void only_higher_bids_should_raise() throws DAOException {
+        LiveAuction liveAuction = engine.get(1);
+
+        assertFalse(engine.raise(liveAuction, bid(9, 10.0)));
+        assertTrue(engine.raise(liveAuction, bid(9, 10.5)));
+        assertEquals(9, liveAuction.getMaxBid().ownerId);
+    }
+
+    @Test
+    public void bidders_should_be_bidding_elsewhere_without_DB() throws DAOException {
+        engine.get(1);
+
+        assertTrue(engine.isBiddingElsewhere(7, 4));
+        assertFalse(engine.isBiddingElsewhere(7, 1));
+        verify(auctionDAO, never()).getAuctionWhereUserIsBidding(7);
+    }
+
+    @Test
+    public void persist_should_write_highest_bid_in_order() throws DAOException {
+        LiveAuction liveAuction = engine.get(1);
+        Bid bid = bid(9, 12.0);
+        engine.raise(liveAuction, bid);
+
+        Bid dbBid = engine.persist(liveAuction, Collections.singletonList(bid), true).join();
+
+        assertSame(bid, dbBid);
+        verify(bidDAO).create(bid);
+        verify(auctionDAO).updateMaxBid(1, 12.0);
+    }
+
+    @Test
+    public void finish_should_flush_pending_writes() throws DAOException {
+        QueuedExecutor writer = new QueuedExecutor();
+        engine.setExecutors(Runnable::run, writer);
+        LiveAuction liveAuction = engine.get(1);
+        engine.persist(liveAuction, Collections.singletonList(bid(9, 12.0)), true);
+        verify(bidDAO, never()).create(any(Bid.class));
+
+        Thread flusher = new Thread(writer::runPending);
+        flusher.start();
+        engine.finish(1);
+
+        verify(bidDAO).create(any(Bid.class));
+        assertEquals(Auction.FINISHED, liveAuction.getStatus());
+        assertSame(liveAuction, engine.get(1));
+        assertFalse(engine.isBiddingElsewhere(9, 4));
+
+        engine.remove(1);
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    public void sequenced_tasks_should_fail_once_auction_is_dropped() throws Exception {
+        when(bidDAO.create(any(Bid.class))).thenThrow(new DAOException(new Exception("Down")));
+        LiveAuction liveAuction = engine.get(1);
+        engine.persist(liveAuction, Collections.singletonList(bid(9, 12.0)), true);
+
+        try {
+            engine.sequence(liveAuction, () -> true).join();
+            fail("Dropped auction should not take more tasks");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void failed_write_should_drop_auction_state() throws DAOException {
+        when(bidDAO.create(any(Bid.class))).thenThrow(new DAOException(new Exception("Down")));
+        LiveAuction liveAuction = engine.get(1);
+
+        assertTrue(engine.persist(liveAuction, Collections.singletonList(bid(9, 12.0)), true)
+                .isCompletedExceptionally());
+        assertNotSame(liveAuction, engine.get(1));
+    }
+
+    @Test
+    public void combinatorial_auction_should_keep_provisional_winners() throws DAOException {
+        Event event = new Event();
+        event.id = 2;
+        event.auctionType = Event.COMBINATORIAL;
+        when(eventDAO.getById(2)).thenReturn(event);
+        when(bidDAO.getListByAuctionId(1)).thenReturn(Arrays.asList(bid(7, 5.0, 3), bid(7, 5.0, 4), bid(8, 6.1, 4)));
+        LiveAuction liveAuction = engine.get(1);
+        assertEquals(1, liveAuction.getProvisional().winners.size());
+        assertEquals(8, liveAuction.getProvisional().winners.get(0).id);
+
+        engine.allocate(liveAuction, Collections.singletonList(bid(9, 4.29, 3)));
+        assertEquals(1039, liveAuction.getProvisional().value); // Cents.
+        assertNull(engine.finishAllocation(1, 1, TimeUnit.SECONDS)); // Still taking bids.
+
+        engine.finish(1);
+        KAuctionResult result = engine.finishAllocation(1, 1, TimeUnit.SECONDS);
+        assertTrue(result.optimal);
+        assertEquals(1039, result.value);
+        assertEquals(Arrays.asList(8, 9), Arrays.asList(result.winners.get(0).id, result.winners.get(1).id));
+    }
+
+    @Test
+    public void english_auction_should_have_no_provisional_winners() throws DAOException {
+        LiveAuction liveAuction = engine.get(1);
+        engine.finish(1);
+
+        assertNull(liveAuction.getProvisional());
+        assertNull(engine.finishAllocation(1, 1, TimeUnit.SECONDS));
+    }
+
+    private static Bid bid(int ownerId, double amount) {
+        return bid(ownerId, amount, 3);
+    }
+
+    private static Bid bid(int ownerId, double amount, int goodId) {
+        Bid bid = new Bid();
+        bid.auctionId = 1;
+        bid.goodId = goodId;
+        bid.ownerId = ownerId;
+        bid.amount = amount;
+        return bid;
+    }
+
+    /**
+     * Holds the tasks until told to run them.
+     */
+    private static class QueuedExecutor implements Executor {
+
+        private Runnable task;
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            task = command;
+        }
+
+        synchronized void runPending() {
+            if (task != null) {
+                task.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package main.java.live;
+
+import main.java.combinatorial.KBid;
+import main.java.models.Bid;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class LiveAuctionTest {
+
+    @Test
+    public void combinatorial_bids_should_be_grouped_by_bidder_in_cents() {
+        KBid[] kBids = LiveAuction.toKBids(Arrays.asList(bid(7, 10.29, 3), bid(8, 0.07, 3), bid(7, 10.29, 4)));
+
+        assertEquals(2, kBids.length);
+        assertEquals(new KBid(7, 1029, new int[]{3, 4}), kBids[0]);
+        assertEquals(new KBid(8, 7, new int[]{3}), kBids[1]);
+    }
+
+    @Test
+    public void cents_should_round_trip() {
+        for (long cents = 0; cents < 100000; cents++) {
+            double amount = LiveAuction.toAmount(cents);
+            assertEquals(cents, LiveAuction.toCents(amount));
+            assertEquals(cents, LiveAuction.toCents(LiveAuction.floorCents(amount)));
+        }
+    }
+
+    @Test
+    public void amounts_should_be_floored_to_the_cent() {
+        assertEquals(0.29, LiveAuction.floorCents(0.29), 0);
+        assertEquals(10.29, LiveAuction.floorCents(10.2999), 0);
+        assertEquals(10.0, LiveAuction.floorCents(10.009), 0);
+    }
+
+    private static Bid bid(int ownerId, double amount, int goodId) {
+        Bid bid = new Bid();
+        bid.ownerId = ownerId;
+        bid.amount = amount;
+        bid.goodId = goodId;
+        return bid;
+    }
+}
@@ -0,0 +1,113 @@
+package main.java.mocks;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Records what is sent. Sends complete straight away, unless told to hold them (as a slow client would do).
+ */
+public class MockAsyncRemoteEndpoint implements RemoteEndpoint.Async {
+
+    public List<String> sentTexts = new ArrayList<>();
+    public boolean holdSends;
+
+    private final Queue<SendHandler> pendingHandlers = new LinkedList<>();
+
+    public String lastSendText() {
+        return sentTexts.isEmpty() ? null : sentTexts.get(sentTexts.size() - 1);
+    }
+
+    /**
+     * Complete the oldest held send.
+     */
+    public void completeNext() {
+        SendHandler handler = pendingHandlers.poll();
+        if (handler != null) {
+            handler.onResult(new SendResult());
+        }
+    }
+
+    public int pendingCount() {
+        return pendingHandlers.size();
+    }
+
+    @Override
+    public void sendText(String s, SendHandler sendHandler) {
+        sentTexts.add(s);
+        if (holdSends) {
+            pendingHandlers.add(sendHandler);
+        } else {
+            sendHandler.onResult(new SendResult());
+        }
+    }
+
+    @Override
+    public Future<Void> sendText(String s) {
+        sentTexts.add(s);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public long getSendTimeout() {
+        return 0;
+    }
+
+    @Override
+    public void setSendTimeout(long l) {
+
+    }
+
+    @Override
+    public void sendObject(Object o, SendHandler sendHandler) {
+
+    }
+
+    @Override
+    public Future<Void> sendObject(Object o) {
+        return null;
+    }
+
+    @Override
+    public Future<Void> sendBinary(ByteBuffer byteBuffer) {
+        return null;
+    }
+
+    @Override
+    public void sendBinary(ByteBuffer byteBuffer, SendHandler sendHandler) {
+
+    }
+
+    @Override
+    public void setBatchingAllowed(boolean b) throws IOException {
+
+    }
+
+    @Override
+    public boolean getBatchingAllowed() {
+        return false;
+    }
+
+    @Override
+    public void flushBatch() throws IOException {
+
+    }
+
+    @Override
+    public void sendPing(ByteBuffer byteBuffer) throws IOException, IllegalArgumentException {
+
+    }
+
+    @Override
+    public void sendPong(ByteBuffer byteBuffer) throws IOException, IllegalArgumentException {
+
+    }
+}
@@ -10,10 +10,11 @@ import java.nio.ByteBuffer;
 public class MockBasicRemoteEndpoint implements RemoteEndpoint.Basic {
 
     public Object lastSendObject;
+    public String lastSendText;
 
     @Override
     public void sendText(String s) throws IOException {
-
+        lastSendText = s;
     }
 
     @Override
@@ -10,6 +10,7 @@ import java.util.Set;
 
 public class MockSession implements Session {
     public MockBasicRemoteEndpoint basicRemoteEndpoint = new MockBasicRemoteEndpoint();
+    public MockAsyncRemoteEndpoint asyncRemoteEndpoint = new MockAsyncRemoteEndpoint();
 
     @Override
     public WebSocketContainer getContainer() {
@@ -98,7 +99,7 @@ public class MockSession implements Session {
 
     @Override
     public RemoteEndpoint.Async getAsyncRemote() {
-        return null;
+        return asyncRemoteEndpoint;
     }
 
     @Override
@@ -29,6 +29,11 @@ public class MockWSSender<T> implements WSSender<T> {
         objLastListSend = obj;
     }
 
+    @Override
+    public void sendLatest(List<Session> sessions, T obj) {
+        send(sessions, obj);
+    }
+
     @Override
     public void reply(Session session, T originObj, T newObj) {
         sessionLastReply = session;
@@ -2,6 +2,9 @@ package main.java.models.meta;
 
 import org.junit.Test;
 
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import static org.junit.Assert.*;
 
 public class BodyWSTest {
@@ -15,7 +18,9 @@ public class BodyWSTest {
                 "abc,abc",
                 "123,123,123",
                 "abc,abc,abc",
-                "abc,abc,abc," // status should be numeric.
+                "abc,abc,abc,", // status should be numeric.
+                "abc,abc,99999999999,{}", // status should fit in an int.
+                "abc,abc,200,{\n}",
         };
         for (String invalidEntry: INVALID) {
             BodyWS body = BodyWS.fromString(invalidEntry);
@@ -58,4 +63,46 @@ public class BodyWSTest {
         BodyWS recoveredBody = BodyWS.fromString(bodyText);
         assertEquals(200, recoveredBody.status);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_decode_as_the_regex() {
+        Pattern pattern = Pattern.compile("(.*?),(.*?),([0-9]+),(.*)");
+        String[] FRAMES = new String[]{
+                "a,b,200,{}",
+                "a,b,c,200,{}",
+                "a,,200,,300,{}",
+                "a,b,2x,300,{}",
+                ",,,200,",
+                "a,b,,200,{\"x\": 1, \"y\": \"2,3,\"}",
+                "a,b,200,\u2028",
+                "a,b,007,",
+                "a,b,2147483647,{}",
+                "a,b,200",
+                "a,b,,c",
+        };
+        for (String frame: FRAMES) {
+            Matcher matcher = pattern.matcher(frame);
+            BodyWS body = BodyWS.fromString(frame);
+            if (!matcher.matches()) {
+                assertNull(frame, body.type);
+                continue;
+            }
+            assertEquals(frame, matcher.group(1), body.type);
+            assertEquals(frame, matcher.group(2), body.nonce);
+            assertEquals(frame, Integer.parseInt(matcher.group(3)), body.status);
+            assertEquals(frame, matcher.group(4), body.json);
+        }
+    }
+
+    @Test
+    public void nonce_should_be_generated_once_on_encoding() {
+        BodyWS body = new BodyWS();
+        assertNull(body.nonce);
+
+        String bodyText = body.toString();
+        assertNotNull(body.nonce);
+        assertEquals(36, body.nonce.length());
+        assertEquals(bodyText, body.toString());
+        assertNotEquals(bodyText, new BodyWS().toString());
+    }
+}
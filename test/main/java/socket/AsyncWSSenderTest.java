@@ -0,0 +1,188 @@
+package main.java.socket;
+
+import main.java.mocks.MockSession;
+import main.java.models.meta.BodyWS;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.websocket.Session;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AsyncWSSenderTest {
+
+    MockSession mockSession;
+    AsyncBodyWSSender wsSender;
+
+    @Before
+    public void setup() {
+        mockSession = new MockSession();
+        wsSender = new AsyncBodyWSSender(2);
+    }
+
+    @Test
+    public void should_send_body() {
+        BodyWS body = new BodyWS();
+        wsSender.send(mockSession, body);
+
+        assertEquals(body.toString(), mockSession.asyncRemoteEndpoint.lastSendText());
+        assertEquals(1, wsSender.getSentCount());
+        assertEquals(1, wsSender.getSendStats().getCount());
+    }
+
+    @Test
+    public void should_reply_new_body() {
+        BodyWS requestBody = body("A");
+        requestBody.nonce = "123";
+        BodyWS replyBody = new BodyWS();
+
+        wsSender.reply(mockSession, requestBody, replyBody);
+
+        assertEquals(replyBody.toString(), mockSession.asyncRemoteEndpoint.lastSendText());
+        assertEquals("A", replyBody.type);
+        assertEquals("123", replyBody.nonce);
+    }
+
+    @Test
+    public void should_send_one_at_a_time_in_order() {
+        mockSession.asyncRemoteEndpoint.holdSends = true;
+        BodyWS first = body("A");
+        BodyWS second = body("B");
+
+        wsSender.send(mockSession, first);
+        wsSender.send(mockSession, second);
+        assertEquals(1, mockSession.asyncRemoteEndpoint.pendingCount());
+        assertEquals(1, wsSender.getQueuedCount());
+
+        mockSession.asyncRemoteEndpoint.completeNext();
+        assertEquals(frames(first, second), mockSession.asyncRemoteEndpoint.sentTexts);
+    }
+
+    @Test
+    public void slow_session_should_not_hold_back_the_others() {
+        MockSession slowSession = new MockSession();
+        slowSession.asyncRemoteEndpoint.holdSends = true;
+        List<Session> sessions = new ArrayList<>();
+        sessions.add(slowSession);
+        sessions.add(mockSession);
+
+        for (int i = 0; i < 10; i++) {
+            wsSender.sendLatest(sessions, body("Bidded"));
+        }
+
+        assertEquals(10, mockSession.asyncRemoteEndpoint.sentTexts.size());
+        assertEquals(1, slowSession.asyncRemoteEndpoint.sentTexts.size());
+        assertTrue(wsSender.getQueuedCount() <= 2);
+    }
+
+    @Test
+    public void full_queue_should_coalesce_latest_broadcasts_of_the_same_type() {
+        mockSession.asyncRemoteEndpoint.holdSends = true;
+        List<Session> sessions = new ArrayList<>();
+        sessions.add(mockSession);
+        BodyWS inFlight = body("Bidded");
+        BodyWS other = body("Winners");
+        BodyWS superseded = body("Bidded");
+        BodyWS latest = body("Bidded");
+
+        wsSender.sendLatest(sessions, inFlight);
+        wsSender.sendLatest(sessions, other);
+        wsSender.sendLatest(sessions, superseded);
+        wsSender.sendLatest(sessions, latest);
+        mockSession.asyncRemoteEndpoint.completeNext();
+        mockSession.asyncRemoteEndpoint.completeNext();
+
+        assertEquals(frames(inFlight, other, latest), mockSession.asyncRemoteEndpoint.sentTexts);
+        assertEquals(1, wsSender.getCoalescedCount());
+    }
+
+    @Test
+    public void full_queue_should_drop_the_oldest_latest_broadcast_but_never_replies() {
+        mockSession.asyncRemoteEndpoint.holdSends = true;
+        List<Session> sessions = new ArrayList<>();
+        sessions.add(mockSession);
+        BodyWS inFlight = body("A");
+        BodyWS reply = body("Reply");
+        BodyWS oldest = body("B");
+        BodyWS newest = body("C");
+        BodyWS otherReply = body("OtherReply");
+
+        wsSender.sendLatest(sessions, inFlight);
+        wsSender.send(mockSession, reply);
+        wsSender.sendLatest(sessions, oldest);
+        wsSender.sendLatest(sessions, newest);
+        wsSender.send(mockSession, otherReply);
+        for (int i = 0; i < 4; i++) {
+            mockSession.asyncRemoteEndpoint.completeNext();
+        }
+
+        assertEquals(frames(inFlight, reply, newest, otherReply), mockSession.asyncRemoteEndpoint.sentTexts);
+        assertEquals(1, wsSender.getDroppedCount());
+    }
+
+    @Test
+    public void full_queue_should_never_drop_state_broadcasts() {
+        mockSession.asyncRemoteEndpoint.holdSends = true;
+        List<Session> sessions = new ArrayList<>();
+        sessions.add(mockSession);
+        List<BodyWS> bodies = new ArrayList<>();
+        bodies.add(body("Started"));
+        bodies.add(body("NewConnection"));
+        bodies.add(body("NewConnection"));
+        bodies.add(body("Closed"));
+
+        for (BodyWS body: bodies) {
+            wsSender.send(sessions, body);
+        }
+        for (int i = 0; i < bodies.size(); i++) {
+            mockSession.asyncRemoteEndpoint.completeNext();
+        }
+
+        assertEquals(frames(bodies.toArray(new BodyWS[0])), mockSession.asyncRemoteEndpoint.sentTexts);
+        assertEquals(0, wsSender.getDroppedCount());
+        assertEquals(0, wsSender.getCoalescedCount());
+    }
+
+    @Test
+    public void sends_completed_inline_should_not_grow_the_stack() {
+        mockSession.asyncRemoteEndpoint.holdSends = true;
+        int replies = 100000;
+        for (int i = 0; i < replies; i++) {
+            wsSender.send(mockSession, body("Reply"));
+        }
+
+        mockSession.asyncRemoteEndpoint.holdSends = false; // From now on, sends complete within sendText.
+        mockSession.asyncRemoteEndpoint.completeNext();
+
+        assertEquals(replies, wsSender.getSentCount());
+        assertEquals(0, wsSender.getQueuedCount());
+    }
+
+    @Test
+    public void broadcast_should_be_encoded_once() {
+        MockSession altMockSession = new MockSession();
+        List<Session> sessions = new ArrayList<>();
+        sessions.add(mockSession);
+        sessions.add(altMockSession);
+
+        wsSender.send(sessions, body("Bidded"));
+
+        assertSame(mockSession.asyncRemoteEndpoint.lastSendText(), altMockSession.asyncRemoteEndpoint.lastSendText());
+    }
+
+    private static List<String> frames(BodyWS... bodies) {
+        List<String> frames = new ArrayList<>();
+        for (BodyWS body: bodies) {
+            frames.add(body.toString());
+        }
+        return frames;
+    }
+
+    private static BodyWS body(String type) {
+        BodyWS body = new BodyWS();
+        body.type = type;
+        return body;
+    }
+}
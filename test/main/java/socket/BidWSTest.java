@@ -5,6 +5,8 @@ import main.java.ProjectVariables;
 import main.java.dao.*;
 import main.java.dao.sql.*;
 import main.java.gson.BetterGson;
+import main.java.live.AuctionCloseQueue;
+import main.java.live.LiveAuctionEngine;
 import main.java.mocks.MockHttpSession;
 import main.java.mocks.MockSession;
 import main.java.mocks.MockWSSender;
@@ -53,8 +55,11 @@ public class BidWSTest extends AbstractDBTest {
         mockSender = new MockWSSender<>();
 
         BidWS.clearConnected();
+        LiveAuctionEngine.getInstance().clear();
+        LiveAuctionEngine.getInstance().setExecutors(Runnable::run, Runnable::run); // Bid replies are checked right away.
         bidWS = new BidWS();
         bidWS.sender = mockSender;
+        bidWS.closes = new AuctionCloseQueue(Runnable::run, 1); // Close replies are checked right away.
         bidWS.onOpen(mockSession, mockHttpSession);
     }
 
@@ -1189,6 +1194,11 @@ public class BidWSTest extends AbstractDBTest {
         assertEquals(user.id, replyBid.auctionId);
         assertNotNull(replyBid.createdAt);
         assertEquals(200, replyBody.status);
+
+        // The only bidder is winning so far.
+        assertEquals(BidWS.TYPE_AUCTION_PROVISIONAL_WINNERS, mockSender.objLastListSend.type);
+        Auction provisional = new BetterGson().newInstance().fromJson(mockSender.objLastListSend.json, Auction.class);
+        assertEquals(String.valueOf(user.id), provisional.combinatorialWinners);
     }
 
     /**
@@ -1574,6 +1584,28 @@ public class BidWSTest extends AbstractDBTest {
         // User credit has to remain the same.
         User newDbUser = userDAO.getById(user.id);
         assertEquals(dbUser.credit, newDbUser.credit, 0);
+
+        // The close queue told the closing user it is done.
+        assertEquals(BidWS.TYPE_AUCTION_CLOSE_STATE, mockSender.objLastSend.type);
+        assertEquals("any", mockSender.objLastSend.nonce);
+        assertEquals(JsonCommon.msg(AuctionCloseQueue.State.DONE.name()), mockSender.objLastSend.json);
+    }
+
+    @Test
+    public void auction_being_closed_can_not_be_closed_again() throws DAOException {
+        Auction auction = successfulSubscription();
+        bidWS.closes = new AuctionCloseQueue(runnable -> {}, 1); // Closes never run.
+
+        BodyWS requestBody = new BodyWS();
+        requestBody.type = BidWS.TYPE_AUCTION_CLOSE;
+        requestBody.nonce = "any";
+        requestBody.json = new BetterGson().newInstance().toJson(auction);
+        bidWS.onMessage(mockSession, requestBody);
+        assertEquals(JsonCommon.msg(AuctionCloseQueue.State.QUEUED.name()), mockSender.objLastSend.json);
+        bidWS.onMessage(mockSession, requestBody);
+
+        BodyWS replyBody = mockSender.newObjLastReply;
+        assertEquals(JsonCommon.error(BidWS.AUCTION_CLOSE_BUSY), replyBody.json);
     }
 
     @Test
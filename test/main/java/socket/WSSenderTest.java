@@ -40,8 +40,8 @@ public class WSSenderTest {
         BodyWS body = new BodyWS();
         wsSender.send(sessions, body);
 
-        assertEquals(body, mockSession.basicRemoteEndpoint.lastSendObject);
-        assertEquals(body, altMockSession.basicRemoteEndpoint.lastSendObject);
+        assertEquals(body.toString(), mockSession.basicRemoteEndpoint.lastSendText);
+        assertSame(mockSession.basicRemoteEndpoint.lastSendText, altMockSession.basicRemoteEndpoint.lastSendText);
     }
 
     @Test
@@ -1,8 +1,10 @@
 package main.java.utils;
 
+import main.java.combinatorial.KBid;
 import main.java.models.*;
 
 import java.sql.Timestamp;
+import java.util.Random;
 
 public class DummyGenerator {
 
@@ -156,4 +158,16 @@ public class DummyGenerator {
         bid.amount = TEST_BID_OTHER_AMOUNT;
         return bid;
     }
+
+    /**
+     * Bids on 1 to 3 distinct goods out of goodCount, worth 1 to 100.
+     */
+    public static KBid[] getRandomKBids(Random random, int bidCount, int goodCount) {
+        KBid[] bids = new KBid[bidCount];
+        for (int i = 0; i < bidCount; i++) {
+            int[] goodIds = random.ints(0, goodCount).distinct().limit(1 + random.nextInt(Math.min(3, goodCount))).toArray();
+            bids[i] = new KBid(i + 1, 1 + random.nextInt(100), goodIds);
+        }
+        return bids;
+    }
 }